@@ -0,0 +1,63 @@
+package com.huffman.code;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/** Benchmark inputs. The text corpora come from the main resources; the
+ * synthetic ones are generated from a fixed seed so runs are comparable. */
+public class Corpus {
+
+    /** Length of the synthetic corpora, close to GreatExpectations.txt */
+    static final int SYNTHETIC_LENGTH = 1 << 20;
+
+    private Corpus() {
+    }
+
+    /** Return the corpus with the given name: TestFile1, GreatExpectations,
+     * random (uniform chars 0-255) or skewed (geometric over 64 chars). */
+    public static String load(String name) {
+        switch (name) {
+            case "TestFile1":
+            case "GreatExpectations":
+                return readResource("/" + name + ".txt");
+            case "random":
+                return random();
+            case "skewed":
+                return skewed();
+            default:
+                throw new IllegalArgumentException("unknown corpus " + name);
+        }
+    }
+
+    private static String readResource(String name) {
+        try (InputStream in = Corpus.class.getResourceAsStream(name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String random() {
+        Random random = new Random(1);
+        char[] chars = new char[SYNTHETIC_LENGTH];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) random.nextInt(256);
+        }
+        return new String(chars);
+    }
+
+    /* Each char is half as likely as the one before it, which gives the
+     * deepest trees a 64-symbol alphabet can have in this length */
+    private static String skewed() {
+        Random random = new Random(1);
+        char[] chars = new char[SYNTHETIC_LENGTH];
+        for (int i = 0; i < chars.length; i++) {
+            int rank = Math.min(Long.numberOfTrailingZeros(random.nextLong() | Long.MIN_VALUE), 63);
+            chars[i] = (char) ('0' + rank);
+        }
+        return new String(chars);
+    }
+}
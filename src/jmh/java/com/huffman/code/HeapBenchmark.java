@@ -0,0 +1,87 @@
+package com.huffman.code;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+/** Compares the binary Heap with d-ary IntPriorityHeaps on the Huffman
+ * merge loop: heapify one leaf per symbol, then poll two and add their sum
+ * until one element is left. The frequencies are Zipf-like, as in text. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeapBenchmark {
+
+    @Param({"256", "65536"})
+    public int symbols;
+
+    @Param({"2", "4", "8"})
+    public int arity;
+
+    int[] values;
+    int[] priorities;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(23);
+        values = new int[symbols];
+        priorities = new int[symbols];
+        for (int i = 0; i < symbols; i++) {
+            values[i] = i;
+            priorities[i] = 1 + (int) (1_000_000.0 / (1 + random.nextInt(symbols)));
+        }
+    }
+
+    @Benchmark
+    public int intPriorityHeap() {
+        IntPriorityHeap heap = new IntPriorityHeap(symbols, arity);
+        heap.addAll(values, priorities, symbols);
+        int next = symbols;
+        while (heap.size() > 1) {
+            int p = heap.peekPriority();
+            heap.poll();
+            p += heap.peekPriority();
+            heap.poll();
+            heap.add(next++, p);
+        }
+        return heap.peekPriority();
+    }
+
+    @Benchmark
+    public int heap() {
+        //Heap is always binary; the arity param only repeats this result
+        AList<Integer> vs = new AList<>();
+        AList<Integer> ps = new AList<>();
+        for (int i = 0; i < symbols; i++) {
+            vs.append(values[i]);
+            ps.append(priorities[i]);
+        }
+        Heap<Integer, Integer> heap = new Heap<>(vs, ps);
+        AList<Integer> popped = new AList<>();
+        int next = symbols;
+        int p = 0;
+        while (heap.size() > 1) {
+            p = priorityOf(heap.poll(), popped) + priorityOf(heap.poll(), popped);
+            popped.append(p);
+            heap.add(next++, p);
+        }
+        return p;
+    }
+
+    /* Return the priority of value v: a leaf's own, or a merged node's from
+     * merged */
+    private int priorityOf(int v, AList<Integer> merged) {
+        return v < symbols ? priorities[v] : merged.get(v - symbols);
+    }
+}
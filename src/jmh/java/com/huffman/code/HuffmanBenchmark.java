@@ -0,0 +1,104 @@
+package com.huffman.code;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks each stage of the HuffmanService pipeline on several corpora.
+ * Besides ops/s, every benchmark reports the input chars it processed per
+ * second ("bytes"), and the jmh task adds the GC profiler for allocation
+ * rates. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HuffmanBenchmark {
+
+    @Param({"TestFile1", "GreatExpectations", "random", "skewed"})
+    public String corpus;
+
+    String input;
+    FrequencyTable frequencies; // counts of input
+    HuffmanService service; // a service that has built its tree and encoder
+    EncodedData encoded; // input encoded by service
+
+    /** Counts the input chars processed, reported as a rate */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        input = Corpus.load(corpus);
+        service = new HuffmanService();
+        encoded = service.encodeBits(input);
+        service.encodedString = encoded.toBitString();
+        frequencies = service.frequencyCount;
+    }
+
+    @Benchmark
+    public FrequencyTable countFrequencies(Throughput t) {
+        HuffmanService hs = new HuffmanService();
+        hs.countFrequencies(input);
+        t.bytes += input.length();
+        return hs.frequencyCount;
+    }
+
+    @Benchmark
+    public FlatHuffmanTree addToHeapAndBuildTree() {
+        HuffmanService hs = new HuffmanService();
+        hs.frequencyCount = frequencies;
+        hs.addToHeap();
+        hs.buildTree();
+        return hs.huffTree;
+    }
+
+    @Benchmark
+    public CodeTable buildEncoder() {
+        service.buildEncoder();
+        return service.encodingMap;
+    }
+
+    @Benchmark
+    public EncodedData encode(Throughput t) {
+        BitWriter writer = new BitWriter(input.length() / 4);
+        service.encodingMap.encode(input, writer);
+        t.bytes += input.length();
+        return writer.toEncodedData();
+    }
+
+    @Benchmark
+    public EncodedData encodePipeline(Throughput t) {
+        t.bytes += input.length();
+        return new HuffmanService().encodeBits(input);
+    }
+
+    @Benchmark
+    public String decode(Throughput t) {
+        t.bytes += input.length();
+        return service.tableDecoder.decodeString(encoded);
+    }
+
+    @Benchmark
+    public String decodeTreeWalk(Throughput t) {
+        t.bytes += input.length();
+        return service.decode();
+    }
+}
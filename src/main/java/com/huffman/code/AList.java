@@ -1,15 +1,25 @@
 package com.huffman.code;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
 
 /*
  * Author: James Luo-Hermanson
  * Date: 08/09/2025
  * Purpose: An ArrayList-like dynamic array class that allocates
  * new memory when needed
+ *
+ * Capacity only grows on its own: pop and clear keep the backing array so
+ * it can be reused, and trimToSize gives unused capacity back. IntAList and
+ * LongAList are the same list over int and long elements, without boxing.
  */
 
 public class AList<T> {
+  /** The largest capacity an AList grows to */
+  static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
   protected int size; // number of elements in the AList
   protected T[] a; // the backing array storage
 
@@ -36,33 +46,54 @@ public class AList<T> {
   /** Grows a if newSize exceeds a's capacity. The new capacity is the smallest
    * number of doublings of the current capacity needed to exceed newSize. Does
    * nothing if newSize <= a.length.  Grow the array by allocating a new array
-   * and copying the old array's contents into the new one. This does *not*
+   * and copying the old array's elements into the new one. This does *not*
    * change the AList's size. */
   protected void growIfNeeded(int newSize) {
-    int currentCap = getCap();
-
-    if (newSize > currentCap){
-      int newCap = currentCap;
-      //Increase newCap to smallest doubling of current capacity that exceeds newSize
-      while (newCap < newSize){
-        newCap*=2;
-      }
-
-      //Create new array of new capacity, copy previous array into new array
-      T[] b = createArray(newCap);
-      if (currentCap >= 0) {
-        System.arraycopy(a, 0, b, 0, currentCap);
-        a = b;
-      }
+    if (newSize > getCap()) {
+      a = reallocate(a, size, grownCapacity(getCap(), newSize), this::createArray);
+    }
+  }
+
+  /** Returns the smallest number of doublings of capacity (at least 1) that
+   * holds minCapacity elements, or the largest array size if doubling would
+   * overflow. Shared by AList, IntAList and LongAList. */
+  static int grownCapacity(int capacity, int minCapacity) {
+    if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+      throw new OutOfMemoryError("capacity " + minCapacity + " too large");
     }
+    long newCap = Math.max(capacity, 1);
+    while (newCap < minCapacity) {
+      newCap *= 2;
+    }
+    return (int) Math.min(newCap, MAX_CAPACITY);
+  }
+
+  /** Returns a new array of the given capacity, made by newArray, holding
+   * the first size elements of array. Only the elements in use are copied,
+   * not the whole old capacity. Shared by AList, IntAList and LongAList to
+   * grow and trim. */
+  static <A> A reallocate(A array, int size, int capacity, IntFunction<A> newArray) {
+    A b = newArray.apply(capacity);
+    System.arraycopy(array, 0, b, 0, size);
+    return b;
+  }
+
+  /** Grows the capacity, if needed, to hold at least minCapacity elements
+   * without further allocation. Does not change the size. */
+  public void ensureCapacity(int minCapacity) {
+    growIfNeeded(minCapacity);
   }
 
   /** Resizes the AList.
    *  this *does* modify the size, and may modify the capacity if newsize
    *  exceeds capacity. */
   public void resize(int newsize) {
-    size = newsize;
     growIfNeeded(newsize);
+    if (newsize < size) {
+      //Drop references to the removed elements
+      Arrays.fill(a, newsize, size, null);
+    }
+    size = newsize;
   }
 
   /** Gets element i from AList.
@@ -87,9 +118,45 @@ public class AList<T> {
    * Grows the array if needed to fit the appended value */
   public void append(T value) {
     if (getCap() == size){
-      resize(size + 1);
-      put(size - 1, value);
-    } else put(size++, value);
+      growIfNeeded(size + 1);
+    }
+    a[size++] = value;
+  }
+
+  /** Appends every element of values, in order, growing at most once. */
+  public void addAll(T[] values) {
+    growIfNeeded(size + values.length);
+    System.arraycopy(values, 0, a, size, values.length);
+    size += values.length;
+  }
+
+  /** Appends every element of values, in their iteration order, growing
+   * at most once. */
+  public void addAll(Collection<? extends T> values) {
+    growIfNeeded(size + values.size());
+    for (T value : values) {
+      append(value);
+    }
+  }
+
+  /** Appends every element of other, in order, growing at most once. */
+  public void addAll(AList<? extends T> other) {
+    growIfNeeded(size + other.size);
+    System.arraycopy(other.a, 0, a, size, other.size);
+    size += other.size;
+  }
+
+  /** Removes every element, keeping the capacity for reuse. */
+  public void clear() {
+    Arrays.fill(a, 0, size, null);
+    size = 0;
+  }
+
+  /** Shrinks the capacity to the size, giving back the unused space. */
+  public void trimToSize() {
+    if (size < getCap()) {
+      a = reallocate(a, size, size, this::createArray);
+    }
   }
 
   /** Removes and returns the value at the end of the AList.
@@ -0,0 +1,222 @@
+package com.huffman.code;
+
+import java.util.Arrays;
+
+/** An AdaptiveHuffman is a dynamic (FGK) Huffman model. It starts out
+ * empty and updates its tree after every symbol, so it needs neither a
+ * frequency pass nor a header: an encoder and a decoder that start from the
+ * same state and see the same symbols stay in step. The first time a symbol
+ * occurs it is written as the code of the NYT (not yet transmitted) leaf
+ * followed by the symbol's literal bits.
+ *
+ * An instance holds the state of one stream, so use a new one for each
+ * stream, and one for each direction.
+ *
+ * The tree lives in parallel arrays indexed by node number. Number 0 is the
+ * root, and weights never increase with the number, so the first node of
+ * a given weight (its block leader) can be found by binary search. The NYT
+ * leaf always has the highest number. */
+public class AdaptiveHuffman {
+
+    private static final int NONE = -1;
+    private static final int NYT = -2;
+
+    private final int symbolBits;
+    //leafOf[s] is the node number of symbol s's leaf, or NONE
+    private final int[] leafOf;
+
+    private long[] weight = new long[64];
+    private int[] parent = new int[64];
+    //left[n] is NONE for a leaf, whose symbol is symbol[n]
+    private int[] left = new int[64];
+    private int[] right = new int[64];
+    private int[] symbol = new int[64];
+    private int nodes = 1;
+    private int nyt = 0;
+
+    //Scratch for the path from a leaf up to the root, reused by each symbol
+    private final IntAList path = new IntAList(64);
+
+    /** A model for symbols of symbolBits bits
+     * @throws IllegalArgumentException if symbolBits is not in 1..16 */
+    public AdaptiveHuffman(int symbolBits) {
+        if (symbolBits < 1 || symbolBits > 16) {
+            throw new IllegalArgumentException("bad symbol size " + symbolBits);
+        }
+        this.symbolBits = symbolBits;
+        leafOf = new int[1 << symbolBits];
+        Arrays.fill(leafOf, NONE);
+        parent[0] = NONE;
+        left[0] = NONE;
+        right[0] = NONE;
+        symbol[0] = NYT;
+    }
+
+    /** Return the chars of data coded by a new 16-bit model */
+    public static EncodedData encode(CharSequence data) {
+        AdaptiveHuffman model = new AdaptiveHuffman(16);
+        BitWriter out = new BitWriter(data.length() / 4);
+        for (int x = 0; x < data.length(); x++) {
+            model.encode(data.charAt(x), out);
+        }
+        return out.toEncodedData();
+    }
+
+    /** Return the chars coded in data by encode(CharSequence) */
+    public static String decode(EncodedData data) {
+        AdaptiveHuffman model = new AdaptiveHuffman(16);
+        BitReader in = new BitReader(data);
+        StringBuilder sb = new StringBuilder();
+        while (in.bitsRemaining() > 0) {
+            sb.append((char) model.decode(in));
+        }
+        if (in.isOverrun() || in.bitsRemaining() < 0) {
+            throw new IllegalStateException("truncated code in input");
+        }
+        return sb.toString();
+    }
+
+    /** Write the code of s to out and update the model
+     * @throws IllegalArgumentException if s does not fit in symbolBits */
+    public void encode(int s, BitWriter out) {
+        if (s < 0 || s >= leafOf.length) {
+            throw new IllegalArgumentException("symbol " + s + " out of range");
+        }
+        int leaf = leafOf[s];
+        if (leaf == NONE) {
+            writePath(nyt, out);
+            out.writeBits(s, symbolBits);
+            leaf = addSymbol(s);
+        } else {
+            writePath(leaf, out);
+        }
+        update(leaf);
+    }
+
+    /** Read one symbol from in and update the model */
+    public int decode(BitReader in) {
+        int n = 0;
+        while (left[n] != NONE) {
+            n = in.readBit() == 0 ? left[n] : right[n];
+        }
+        int s;
+        if (n == nyt) {
+            s = in.readBits(symbolBits);
+            n = addSymbol(s);
+        } else {
+            s = symbol[n];
+        }
+        update(n);
+        return s;
+    }
+
+    /** Return the number of distinct symbols seen so far */
+    public int size() {
+        return (nodes - 1) / 2;
+    }
+
+    /* Write the code of node n, the branches from the root down to it */
+    private void writePath(int n, BitWriter out) {
+        path.clear();
+        for (; n != 0; n = parent[n]) {
+            path.append(n);
+        }
+        while (path.size() > 0) {
+            int child = path.pop();
+            out.writeBit(right[parent[child]] == child ? 1 : 0);
+        }
+    }
+
+    /* Split the NYT leaf into a new NYT leaf and a leaf for s, both of
+     * weight 0, and return the new leaf */
+    private int addSymbol(int s) {
+        if (nodes + 2 > weight.length) {
+            int capacity = weight.length * 2;
+            weight = Arrays.copyOf(weight, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            symbol = Arrays.copyOf(symbol, capacity);
+        }
+        int leaf = nodes;
+        int newNyt = nodes + 1;
+        nodes += 2;
+
+        left[nyt] = newNyt;
+        right[nyt] = leaf;
+        symbol[nyt] = NONE;
+        initLeaf(leaf, s);
+        initLeaf(newNyt, NYT);
+        leafOf[s] = leaf;
+        nyt = newNyt;
+        return leaf;
+    }
+
+    private void initLeaf(int n, int s) {
+        weight[n] = 0;
+        parent[n] = nyt;
+        left[n] = NONE;
+        right[n] = NONE;
+        symbol[n] = s;
+    }
+
+    /* Add one to the weight of leaf n and of its ancestors. Before each
+     * increment the node is swapped with the leader of its block, unless
+     * that is its parent, so weights still never increase with the
+     * number afterwards. */
+    private void update(int n) {
+        while (n != 0) {
+            int leader = leader(n);
+            if (leader != n && leader != parent[n]) {
+                swap(leader, n);
+                n = leader;
+            }
+            weight[n]++;
+            n = parent[n];
+        }
+        weight[0]++;
+    }
+
+    /* Return the lowest numbered node with the weight of node n */
+    private int leader(int n) {
+        long w = weight[n];
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (weight[mid] > w) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /* Swap the subtrees at nodes a and b, which have the same weight and
+     * are not ancestors of each other. Parents keep pointing at the same
+     * numbers, so only the contents move. */
+    private void swap(int a, int b) {
+        int t = symbol[a];
+        symbol[a] = symbol[b];
+        symbol[b] = t;
+        t = left[a];
+        left[a] = left[b];
+        left[b] = t;
+        t = right[a];
+        right[a] = right[b];
+        right[b] = t;
+        relink(a);
+        relink(b);
+    }
+
+    /* Point whatever now sits at node n back at n */
+    private void relink(int n) {
+        if (left[n] != NONE) {
+            parent[left[n]] = n;
+            parent[right[n]] = n;
+        } else {
+            leafOf[symbol[n]] = n;
+        }
+    }
+}
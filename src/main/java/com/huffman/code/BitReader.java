@@ -0,0 +1,150 @@
+package com.huffman.code;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/** A BitReader reads a packed bit stream, most significant bit first. Up to
+ * 64 bits are buffered in a window, so peeking at the next few bits does
+ * not touch the underlying buffer. Bits past the end of the data read as
+ * zero, which lets a table decoder peek a full table index at the tail.
+ *
+ * A reader with a source channel refills a fixed-size direct buffer from
+ * it, so it can read streams of any length in bounded memory. */
+public class BitReader {
+
+    protected ByteBuffer buf; // remaining packed bytes
+    protected ReadableByteChannel source; // where buf is refilled from, or null
+    protected long window; // buffered bits, right-aligned in the low windowBits
+    protected int windowBits; // number of valid bits in window
+    protected long bitsLeft; // data bits not yet consumed, excluding padding
+    protected boolean overrun; // true once bits past the end were consumed
+
+    /** A BitReader over the bits of data */
+    public BitReader(EncodedData data) {
+        this(ByteBuffer.wrap(data.getBytes()), data.getBitLength());
+    }
+
+    /** A BitReader over the first bitLength bits remaining in buf. Reading
+     * advances buf's position. */
+    public BitReader(ByteBuffer buf, long bitLength) {
+        this.buf = buf;
+        this.bitsLeft = bitLength;
+    }
+
+    /** A BitReader over all bytes read from source. Its length is unknown,
+     * so the data must say where it ends. Errors reading source are thrown
+     * as UncheckedIOException. */
+    public BitReader(ReadableByteChannel source) {
+        this.source = source;
+        this.buf = ByteBuffer.allocateDirect(BitWriter.SINK_BUFFER_SIZE).limit(0);
+        this.bitsLeft = Long.MAX_VALUE;
+    }
+
+    /** Return the number of data bits not yet consumed */
+    public long bitsRemaining() {
+        return bitsLeft;
+    }
+
+    /** Return the next n bits without consuming them.
+     * Precondition: 0 <= n <= 32 */
+    public int peekBits(int n) {
+        if (windowBits < n) {
+            refill();
+            if (windowBits < n) {
+                //Out of data: pad with zero bits on the right
+                return (int) ((window << (n - windowBits)) & BitWriter.mask(n));
+            }
+        }
+        return (int) ((window >>> (windowBits - n)) & BitWriter.mask(n));
+    }
+
+    /** Consume n bits previously returned by peekBits.
+     * Precondition: n <= the n passed to the last peekBits */
+    public void skipBits(int n) {
+        if (n > windowBits) {
+            overrun = true;
+        }
+        windowBits = Math.max(windowBits - n, 0);
+        bitsLeft -= n;
+    }
+
+    /** Return true if any consumed bits lay past the end of the underlying
+     * bytes, i.e. were zero padding made up by peekBits */
+    public boolean isOverrun() {
+        return overrun;
+    }
+
+    /** Read and consume the next n bits.
+     * Precondition: 0 <= n <= 32 */
+    public int readBits(int n) {
+        int bits = peekBits(n);
+        skipBits(n);
+        return bits;
+    }
+
+    /** Read and consume the next bit */
+    public int readBit() {
+        return readBits(1);
+    }
+
+    /** Skip the rest of the current byte, so the next read starts on a byte
+     * boundary. Return the number of bits skipped. */
+    public int alignToByte() {
+        //The window is filled a byte at a time, so the bits of a partly
+        //read byte are the window's bits beyond a multiple of 8
+        int n = windowBits & 7;
+        skipBits(n);
+        return n;
+    }
+
+    /** Read a varint written by BitWriter.writeVarLong
+     * @throws IllegalArgumentException if the varint is longer than 64 bits */
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readBits(8);
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+
+    /* Move whole bytes from buf into the window until it holds more than 56
+     * bits or the data runs out */
+    private void refill() {
+        while (windowBits <= 56) {
+            if (!buf.hasRemaining() && !fillBuffer()) {
+                return;
+            }
+            window = (window << 8) | (buf.get() & 0xFF);
+            windowBits += 8;
+        }
+    }
+
+    /* Read more bytes from source into buf. Return false if there is no
+     * source or it is at end of stream. */
+    private boolean fillBuffer() {
+        if (source == null) {
+            return false;
+        }
+        try {
+            buf.clear();
+            int n = 0;
+            while (n == 0) {
+                n = source.read(buf);
+            }
+            buf.flip();
+            if (n < 0) {
+                source = null;
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
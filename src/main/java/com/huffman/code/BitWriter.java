@@ -0,0 +1,156 @@
+package com.huffman.code;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/** A BitWriter packs variable-length codes into bytes, most significant bit
+ * first. Bits are collected in a 64-bit accumulator and moved into the
+ * backing buffer a whole byte at a time. The last byte is padded with zero
+ * bits when the writer is finished.
+ *
+ * An in-memory writer grows its buffer as needed. A writer with a sink
+ * channel instead drains its buffer to the sink whenever it fills, so its
+ * memory use stays bounded. */
+public class BitWriter {
+
+    /** The buffer size of a writer with a sink channel */
+    public static final int SINK_BUFFER_SIZE = 1 << 16;
+
+    protected ByteBuffer buf; // packed output bytes
+    protected WritableByteChannel sink; // where full buffers go, or null
+    protected long acc; // pending bits, right-aligned
+    protected int accBits; // number of pending bits in acc (always < 8 between calls)
+    protected long bitCount; // total number of bits written
+
+    /** Creates a BitWriter with a default capacity of 64 bytes */
+    public BitWriter() {
+        this(64);
+    }
+
+    /** Creates a BitWriter whose buffer starts with the given capacity in
+     * bytes. The buffer grows as needed. */
+    public BitWriter(int capacity) {
+        buf = ByteBuffer.allocate(Math.max(capacity, 8));
+    }
+
+    /** Creates a BitWriter that writes its packed bytes to sink through a
+     * direct buffer. Errors writing to sink are thrown as
+     * UncheckedIOException. */
+    public BitWriter(WritableByteChannel sink) {
+        this.sink = sink;
+        buf = ByteBuffer.allocateDirect(SINK_BUFFER_SIZE);
+    }
+
+    /** Return the number of bits written so far */
+    public long bitCount() {
+        return bitCount;
+    }
+
+    /** Append the low n bits of bits, most significant first.
+     * Precondition: 0 <= n <= 64 */
+    public void writeBits(long bits, int n) {
+        if (n > 32) {
+            //Split long codes so the accumulator never overflows
+            writeBits(bits >>> 32, n - 32);
+            n = 32;
+        }
+        acc = (acc << n) | (bits & mask(n));
+        accBits += n;
+        bitCount += n;
+        while (accBits >= 8) {
+            accBits -= 8;
+            putByte((byte) (acc >>> accBits));
+        }
+    }
+
+    /** Append a single bit (0 or 1) */
+    public void writeBit(int bit) {
+        writeBits(bit, 1);
+    }
+
+    /** Append value as a varint: groups of 7 bits, least significant group
+     * first, each in a byte whose high bit says whether more groups follow.
+     * Precondition: value >= 0 */
+    public void writeVarLong(long value) {
+        while (value >= 0x80) {
+            writeBits((value & 0x7F) | 0x80, 8);
+            value >>>= 7;
+        }
+        writeBits(value, 8);
+    }
+
+    /** Pad the current byte with zero bits, so the next write starts on a
+     * byte boundary. Return the number of padding bits written. */
+    public int alignToByte() {
+        int padding = (8 - accBits) & 7;
+        if (padding > 0) {
+            writeBits(0, padding);
+        }
+        return padding;
+    }
+
+    /** Pad the output to a whole byte and return the packed bits together
+     * with the bit count and padding metadata. The writer can keep being
+     * written to afterwards, but the padding stays in the stream. */
+    public EncodedData toEncodedData() {
+        if (sink != null) {
+            throw new IllegalStateException("bits were written to a channel");
+        }
+        long bits = bitCount;
+        alignToByte();
+        byte[] bytes = new byte[buf.position()];
+        buf.get(0, bytes);
+        return new EncodedData(bytes, bits);
+    }
+
+    /** Write all complete bytes to the sink. Bits of a partial byte stay
+     * pending. Does nothing for an in-memory writer. */
+    public void flush() {
+        if (sink == null) {
+            return;
+        }
+        try {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                sink.write(buf);
+            }
+            buf.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Pad the output to a whole byte and flush it to the sink */
+    public void finish() {
+        alignToByte();
+        flush();
+    }
+
+    /** Store one finished byte. If the buffer is full, drain it to the sink,
+     * or grow it if there is no sink. */
+    protected void putByte(byte b) {
+        if (!buf.hasRemaining()) {
+            if (sink != null) {
+                flush();
+            } else {
+                growBuffer();
+            }
+        }
+        buf.put(b);
+    }
+
+    /* Double the capacity of buf, keeping its contents */
+    private void growBuffer() {
+        ByteBuffer b = ByteBuffer.allocate(buf.capacity() * 2);
+        buf.flip();
+        b.put(buf);
+        buf = b;
+    }
+
+    /* Return a mask of the low n bits */
+    static long mask(int n) {
+        return n == 64 ? -1L : (1L << n) - 1;
+    }
+}
@@ -0,0 +1,146 @@
+package com.huffman.code;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+/** BlockCompressor compresses a file as independently decodable blocks.
+ * The input is split into fixed-size blocks which are encoded in parallel
+ * against one canonical code built from the whole file. Each block starts
+ * on a byte boundary, and an index at the end of the file records where
+ * every block starts, so a BlockReader can decode blocks concurrently or
+ * jump straight to any one of them.
+ *
+ * The file describes itself, so it can be decoded by another process or
+ * on another node, and checked without decoding. It is laid out as:
+ *   - the 4-byte MAGIC and a 1-byte VERSION
+ *   - the code-length header, padded to a whole byte
+ *   - the block size and the original file length, as varints
+ *   - the packed codes of each block, each padded to a whole byte
+ *   - the index: for each block its file offset as an 8-byte long, its
+ *     number of padding bits as a byte, and the CRC32C of its packed bytes
+ *     as a 4-byte int
+ *   - the footer: the CRC32C of everything before the first block, the
+ *     CRC32C of the index, and the file offset of the index as an 8-byte
+ *     long
+ * All multi-byte numbers outside the bit header are big-endian. */
+public class BlockCompressor {
+
+    /** The first four bytes of a block file, "HUFB" */
+    public static final int MAGIC = 0x48554642;
+
+    /** The format version written by this class */
+    public static final int VERSION = 1;
+
+    /** The size of one block's index entry */
+    static final int INDEX_ENTRY_SIZE = 13;
+
+    /** The size of the footer */
+    static final int FOOTER_SIZE = 16;
+
+    /** The default number of input bytes per block */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    /** Blocks are encoded in waves of this many blocks per pool thread, so
+     * only a few encoded blocks are held in memory at once */
+    static final int BLOCKS_PER_THREAD = 4;
+
+    private BlockCompressor() {
+    }
+
+    /** Compress the file in into the file out in blocks of the default size,
+     * replacing out if it exists. Return the size of the compressed file. */
+    public static long compress(Path in, Path out) throws IOException {
+        return compress(in, out, DEFAULT_BLOCK_SIZE);
+    }
+
+    /** Compress the file in into the file out in blocks of blockSize bytes,
+     * replacing out if it exists. Return the size of the compressed file.
+     * Precondition: blockSize > 0 */
+    public static long compress(Path in, Path out, int blockSize) throws IOException {
+        try (FileChannel input = FileChannel.open(in, StandardOpenOption.READ);
+             FileChannel output = FileChannel.open(out, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long length = input.size();
+            FrequencyTable freqs = HuffmanFiles.countFrequencies(input);
+            if (length == 0) {
+                //An empty file still needs a code for the header
+                freqs.increment(0);
+            }
+            CanonicalCode code = CanonicalCode.fromFrequencies(freqs);
+
+            BitWriter header = new BitWriter();
+            header.writeBits(MAGIC, 32);
+            header.writeBits(VERSION, 8);
+            code.writeHeader(header);
+            header.alignToByte();
+            header.writeVarLong(blockSize);
+            header.writeVarLong(length);
+            byte[] headerBytes = header.toEncodedData().getBytes();
+            writeFully(output, ByteBuffer.wrap(headerBytes));
+
+            int blockCount = Math.toIntExact((length + blockSize - 1) / blockSize);
+            ByteBuffer index = ByteBuffer.allocate(blockCount * INDEX_ENTRY_SIZE);
+            int wave = ForkJoinPool.getCommonPoolParallelism() * BLOCKS_PER_THREAD;
+            for (int first = 0; first < blockCount; first += wave) {
+                EncodedData[] blocks = IntStream.range(first, Math.min(first + wave, blockCount))
+                        .parallel()
+                        .mapToObj(b -> encodeBlock(input, code, (long) b * blockSize, blockSize))
+                        .toArray(EncodedData[]::new);
+                for (EncodedData block : blocks) {
+                    byte[] bytes = block.getBytes();
+                    index.putLong(output.position());
+                    index.put((byte) block.getPadding());
+                    index.putInt(crc32c(ByteBuffer.wrap(bytes)));
+                    writeFully(output, ByteBuffer.wrap(bytes));
+                }
+            }
+
+            long indexOffset = output.position();
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+            footer.putInt(crc32c(ByteBuffer.wrap(headerBytes)));
+            footer.putInt(crc32c(index.flip()));
+            footer.putLong(indexOffset);
+            writeFully(output, index.rewind());
+            writeFully(output, footer.flip());
+            return output.size();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /* Encode the block of up to blockSize bytes of input at pos, and return
+     * its packed codes */
+    private static EncodedData encodeBlock(FileChannel input, CanonicalCode code, long pos, int blockSize) {
+        try {
+            long size = Math.min(blockSize, input.size() - pos);
+            ByteBuffer block = input.map(FileChannel.MapMode.READ_ONLY, pos, size);
+            BitWriter writer = new BitWriter(blockSize / 2);
+            code.encode(block, writer);
+            return writer.toEncodedData();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Return the CRC32C of the bytes between buf's position and limit.
+     * buf's position is not changed. */
+    static int crc32c(ByteBuffer buf) {
+        CRC32C crc = new CRC32C();
+        crc.update(buf.duplicate());
+        return (int) crc.getValue();
+    }
+
+    /* Write all of bytes to channel */
+    static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.huffman.code;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/** A BlockReader decodes a file written by BlockCompressor. Opening it reads
+ * only the header and the block index, and checks their CRCs; each block is
+ * then memory-mapped and decoded on its own, so blocks can be decoded in
+ * any order and from any number of threads. A block's CRC is checked
+ * before it is decoded, and verify checks every block without decoding. */
+public class BlockReader implements Closeable {
+
+    /** No valid header is longer than this many bytes */
+    static final int MAX_HEADER_SIZE = 1 << 12;
+
+    private final FileChannel channel;
+    private final TableDecoder decoder;
+    private final int blockSize;
+    private final long length;
+    private final long[] offsets; // file offset of each block, then of the index
+    private final byte[] paddings; // padding bits at the end of each block
+    private final int[] crcs; // CRC32C of each block's packed bytes
+
+    /** Open the compressed file at path and read its header and index.
+     * @throws IOException if the file is not a valid block file */
+    public BlockReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < 5 + BlockCompressor.FOOTER_SIZE) {
+                throw new IOException("not a block file");
+            }
+            ByteBuffer footer = ByteBuffer.allocate(BlockCompressor.FOOTER_SIZE);
+            channel.read(footer, size - BlockCompressor.FOOTER_SIZE);
+            footer.flip();
+            int headerCrc = footer.getInt();
+            int indexCrc = footer.getInt();
+            long indexOffset = footer.getLong();
+
+            //The header is at most a few KiB, however large the blocks are
+            long headSize = Math.min(indexOffset, MAX_HEADER_SIZE);
+            ByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, headSize);
+            if (head.getInt(0) != BlockCompressor.MAGIC) {
+                throw new IOException("not a block file");
+            }
+            if (head.get(4) != BlockCompressor.VERSION) {
+                throw new IOException("unsupported block file version " + head.get(4));
+            }
+            BitReader reader = new BitReader(head.duplicate().position(5), (headSize - 5) * 8);
+            decoder = CanonicalCode.readHeader(reader).buildDecoder();
+            reader.alignToByte();
+            blockSize = Math.toIntExact(reader.readVarLong());
+            length = reader.readVarLong();
+            long headerEnd = headSize - reader.bitsRemaining() / 8;
+            if (BlockCompressor.crc32c(head.limit((int) headerEnd)) != headerCrc) {
+                throw new IOException("header checksum mismatch");
+            }
+
+            int blockCount = Math.toIntExact((length + blockSize - 1) / blockSize);
+            long indexSize = (long) blockCount * BlockCompressor.INDEX_ENTRY_SIZE;
+            if (indexOffset + indexSize + BlockCompressor.FOOTER_SIZE != size) {
+                throw new IOException("block index does not match file size");
+            }
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, indexSize);
+            if (BlockCompressor.crc32c(index) != indexCrc) {
+                throw new IOException("index checksum mismatch");
+            }
+            offsets = new long[blockCount + 1];
+            paddings = new byte[blockCount];
+            crcs = new int[blockCount];
+            for (int b = 0; b < blockCount; b++) {
+                offsets[b] = index.getLong();
+                paddings[b] = index.get();
+                crcs[b] = index.getInt();
+            }
+            offsets[blockCount] = indexOffset;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("corrupt block file", e);
+        }
+    }
+
+    /** Return the number of blocks */
+    public int getBlockCount() {
+        return offsets.length - 1;
+    }
+
+    /** Return the number of uncompressed bytes per block; the last block
+     * may be shorter */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /** Return the length of the uncompressed data */
+    public long getLength() {
+        return length;
+    }
+
+    /** Decode and return block b, after checking its CRC. Safe to call
+     * from several threads.
+     * @throws IndexOutOfBoundsException if b is not a block number
+     * @throws IOException if the block is corrupt */
+    public byte[] decodeBlock(int b) throws IOException {
+        ByteBuffer packed = mapBlock(b);
+        checkBlock(b, packed);
+        BitReader reader = new BitReader(packed, packed.limit() * 8L - paddings[b]);
+        byte[] block = new byte[(int) Math.min(blockSize, length - (long) b * blockSize)];
+        decoder.decodeBytes(reader, ByteBuffer.wrap(block));
+        if (reader.isOverrun()) {
+            throw new IOException("block " + b + " is truncated");
+        }
+        return block;
+    }
+
+    /** Check the CRC of every block in parallel, without decoding them.
+     * The blocks are read through memory maps, so no block is copied.
+     * @throws IOException naming the first corrupt block found */
+    public void verify() throws IOException {
+        try {
+            IntStream.range(0, getBlockCount()).parallel().forEach(b -> {
+                try {
+                    checkBlock(b, mapBlock(b));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Decode every block in parallel into the file out, replacing out if
+     * it exists. Each block is written at its own offset, so blocks finish
+     * in any order. */
+    public void decompress(Path out) throws IOException {
+        try (FileChannel output = FileChannel.open(out, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            IntStream.range(0, getBlockCount()).parallel().forEach(b -> {
+                try {
+                    ByteBuffer block = ByteBuffer.wrap(decodeBlock(b));
+                    long pos = (long) b * blockSize;
+                    while (block.hasRemaining()) {
+                        pos += output.write(block, pos);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /* Map the packed bytes of block b */
+    private ByteBuffer mapBlock(int b) throws IOException {
+        long start = offsets[b];
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, offsets[b + 1] - start);
+    }
+
+    /* Throw if packed, the bytes of block b, do not match its CRC */
+    private void checkBlock(int b, ByteBuffer packed) throws IOException {
+        if (BlockCompressor.crc32c(packed) != crcs[b]) {
+            throw new IOException("block " + b + " checksum mismatch");
+        }
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+}
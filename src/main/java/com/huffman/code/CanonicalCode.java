@@ -0,0 +1,132 @@
+package com.huffman.code;
+
+/** A CanonicalCode is a prefix code determined entirely by the code length
+ * of each symbol. Codes are assigned in order of increasing length, and
+ * within one length in order of increasing symbol, so a decoder can rebuild
+ * the exact code from the lengths alone. That makes the header a short list
+ * of (symbol, length) pairs instead of a serialized tree.
+ *
+ * Symbols are ints in 0..getAlphabetSize()-1; a symbol with length 0 is not
+ * in the code. */
+public class CanonicalCode extends CodeTable {
+
+    /** The longest code length a CanonicalCode supports */
+    public static final int MAX_CODE_LENGTH = 64;
+
+    /** The length limit of codes built by fromFrequencies. It keeps the
+     * secondary decode tables at most 2^14 entries per prefix. */
+    public static final int DEFAULT_MAX_LENGTH = 24;
+
+    private final int maxLength;
+
+    /** A CanonicalCode where symbol s has a code of lengths[s] bits.
+     * lengths is copied.
+     * @throws IllegalArgumentException if the lengths are out of range or
+     * over-subscribed, i.e. no prefix code has them */
+    public CanonicalCode(int[] lengths) {
+        super(lengths.length);
+
+        //Count codes of each length
+        int[] lengthCount = new int[MAX_CODE_LENGTH + 1];
+        int max = 0;
+        for (int len : lengths) {
+            if (len < 0 || len > MAX_CODE_LENGTH) {
+                throw new IllegalArgumentException("bad code length " + len);
+            }
+            lengthCount[len]++;
+            max = Math.max(max, len);
+        }
+        maxLength = max;
+        lengthCount[0] = 0;
+
+        //Find the first code of each length; the codes of one length
+        //follow on from the shortened codes of the previous length.
+        //The Kraft sum must not exceed 1 at any length.
+        long[] nextCode = new long[MAX_CODE_LENGTH + 2];
+        long code = 0;
+        for (int len = 1; len <= maxLength; len++) {
+            code = (code + lengthCount[len - 1]) << 1;
+            nextCode[len] = code;
+            if (len < 64 && code + lengthCount[len] > (1L << len)) {
+                throw new IllegalArgumentException("code lengths are over-subscribed");
+            }
+        }
+
+        //Hand out codes in symbol order within each length
+        for (int s = 0; s < lengths.length; s++) {
+            if (lengths[s] != 0) {
+                set(s, nextCode[lengths[s]]++, lengths[s]);
+            }
+        }
+    }
+
+    /** Return the canonical Huffman code for the symbols counted in freqs,
+     * with no code longer than DEFAULT_MAX_LENGTH bits. Symbols with
+     * frequency 0 get no code; a single symbol gets a 1-bit code.
+     * @throws IllegalArgumentException if no symbol has a frequency */
+    public static CanonicalCode fromFrequencies(FrequencyTable freqs) {
+        return fromFrequencies(freqs, DEFAULT_MAX_LENGTH);
+    }
+
+    /** Return the canonical Huffman code for the symbols counted in freqs,
+     * with no code longer than maxLength bits. The plain Huffman lengths
+     * are used when they fit; otherwise the optimal lengths under the limit
+     * come from PackageMerge. Symbols with frequency 0 get no code; a
+     * single symbol gets a 1-bit code.
+     * @throws IllegalArgumentException if no symbol has a frequency, or
+     * there are more than 2^maxLength symbols */
+    public static CanonicalCode fromFrequencies(FrequencyTable freqs, int maxLength) {
+        int[] lengths = TwoQueueBuilder.codeLengths(freqs);
+        for (int len : lengths) {
+            if (len > maxLength) {
+                return new CanonicalCode(PackageMerge.codeLengths(freqs, maxLength));
+            }
+        }
+        return new CanonicalCode(lengths);
+    }
+
+    /** Return the length of the longest code */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /** Write the code lengths to out as: the number of coded symbols, then
+     * for each coded symbol in increasing order the gap since the previous
+     * coded symbol and its length. Counts and gaps are varints. */
+    public void writeHeader(BitWriter out) {
+        int count = 0;
+        for (int len : lengths) {
+            if (len != 0) {
+                count++;
+            }
+        }
+        out.writeVarLong(count);
+        int previous = -1;
+        for (int s = 0; s < lengths.length; s++) {
+            if (lengths[s] != 0) {
+                out.writeVarLong(s - previous - 1);
+                out.writeBits(lengths[s], 8);
+                previous = s;
+            }
+        }
+    }
+
+    /** Read code lengths written by writeHeader and return their code.
+     * @throws IllegalArgumentException if the header is malformed */
+    public static CanonicalCode readHeader(BitReader in) {
+        int count = Math.toIntExact(in.readVarLong());
+        int[] symbols = new int[count];
+        int[] symbolLengths = new int[count];
+        int previous = -1;
+        for (int i = 0; i < count; i++) {
+            previous = Math.toIntExact(previous + 1 + in.readVarLong());
+            symbols[i] = previous;
+            symbolLengths[i] = in.readBits(8);
+        }
+        int[] lengths = new int[previous + 1];
+        for (int i = 0; i < count; i++) {
+            lengths[symbols[i]] = symbolLengths[i];
+        }
+        return new CanonicalCode(lengths);
+    }
+}
@@ -0,0 +1,109 @@
+package com.huffman.code;
+
+import java.nio.ByteBuffer;
+
+/** A CodeTable maps each symbol to its prefix code, stored as parallel
+ * primitive arrays indexed by symbol: the code bits right-aligned in a
+ * long, and the code length in a byte. Looking up and writing a code does
+ * not allocate. A symbol with length 0 is not in the table. */
+public class CodeTable {
+
+    protected final long[] codes; // code of each symbol, right-aligned
+    protected final byte[] lengths; // code length of each symbol, 0 if unused
+
+    /** An empty table for symbols 0..alphabetSize-1, filled in with set */
+    public CodeTable(int alphabetSize) {
+        codes = new long[alphabetSize];
+        lengths = new byte[alphabetSize];
+    }
+
+    /** Give symbol s the code formed by the low length bits of code.
+     * Precondition: 0 < length <= 64 */
+    public void set(int s, long code, int length) {
+        codes[s] = code;
+        lengths[s] = (byte) length;
+    }
+
+    /** Return the number of symbols the table can index, coded or not */
+    public int getAlphabetSize() {
+        return lengths.length;
+    }
+
+    /** Return the code length of symbol s, or 0 if s is not in the table */
+    public int getLength(int s) {
+        return s >= 0 && s < lengths.length ? lengths[s] : 0;
+    }
+
+    /** Return the code of symbol s, right-aligned in getLength(s) bits */
+    public long getCode(int s) {
+        return codes[s];
+    }
+
+    /** Return the code of symbol s as a String of '0' and '1' characters,
+     * or null if s is not in the table. Meant for debugging and tests; it
+     * allocates. */
+    public String get(int s) {
+        int len = getLength(s);
+        if (len == 0) {
+            return null;
+        }
+        char[] chars = new char[len];
+        for (int i = 0; i < len; i++) {
+            chars[i] = (char) ('0' + ((codes[s] >>> (len - 1 - i)) & 1));
+        }
+        return new String(chars);
+    }
+
+    /** Write the code of symbol s to out.
+     * @throws IllegalArgumentException if s is not in the table */
+    public void encode(int s, BitWriter out) {
+        int len = getLength(s);
+        if (len == 0) {
+            throw new IllegalArgumentException("symbol " + s + " is not in the code");
+        }
+        out.writeBits(codes[s], len);
+    }
+
+    /** Write the code of every char of data to out.
+     * @throws IllegalArgumentException if a char is not in the table */
+    public void encode(CharSequence data, BitWriter out) {
+        encode(data, 0, data.length(), out);
+    }
+
+    /** Write the code of each char of data from index from to index to - 1
+     * to out.
+     * @throws IllegalArgumentException if a char is not in the table */
+    public void encode(CharSequence data, int from, int to, BitWriter out) {
+        long[] codes = this.codes;
+        byte[] lengths = this.lengths;
+        for (int x = from; x < to; x++) {
+            char c = data.charAt(x);
+            int len = c < lengths.length ? lengths[c] : 0;
+            if (len == 0) {
+                throw new IllegalArgumentException("char " + (int) c + " is not in the code");
+            }
+            out.writeBits(codes[c], len);
+        }
+    }
+
+    /** Write the code of every unsigned byte of data, from its position to
+     * its limit, to out. data's position is not changed.
+     * @throws IllegalArgumentException if a byte is not in the table */
+    public void encode(ByteBuffer data, BitWriter out) {
+        long[] codes = this.codes;
+        byte[] lengths = this.lengths;
+        for (int x = data.position(); x < data.limit(); x++) {
+            int b = data.get(x) & 0xFF;
+            int len = b < lengths.length ? lengths[b] : 0;
+            if (len == 0) {
+                throw new IllegalArgumentException("byte " + b + " is not in the code");
+            }
+            out.writeBits(codes[b], len);
+        }
+    }
+
+    /** Return a table decoder for this code */
+    public TableDecoder buildDecoder() {
+        return new TableDecoder(codes, lengths);
+    }
+}
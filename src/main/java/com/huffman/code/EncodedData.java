@@ -0,0 +1,52 @@
+package com.huffman.code;
+
+/** EncodedData holds a packed Huffman bit stream: the bytes themselves, the
+ * number of meaningful bits, and how many zero bits pad out the last byte.
+ * Bits are stored most significant bit first. */
+public class EncodedData {
+
+    private final byte[] bytes;
+    private final long bitLength;
+
+    /** An EncodedData over bytes, of which the first bitLength bits are data.
+     * Precondition: bytes.length == ceil(bitLength / 8) */
+    public EncodedData(byte[] bytes, long bitLength) {
+        this.bytes = bytes;
+        this.bitLength = bitLength;
+    }
+
+    /** Return the packed bytes. The array is shared, not copied. */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /** Return the number of data bits, excluding padding */
+    public long getBitLength() {
+        return bitLength;
+    }
+
+    /** Return the number of zero bits padding out the last byte (0-7) */
+    public int getPadding() {
+        return (int) (bytes.length * 8L - bitLength);
+    }
+
+    /** Return bit i of the stream (0 or 1).
+     * Precondition: 0 <= i < getBitLength() */
+    public int getBit(long i) {
+        return (bytes[(int) (i >>> 3)] >>> (7 - (int) (i & 7))) & 1;
+    }
+
+    /** Return the bits as a String of '0' and '1' characters, one per bit.
+     * Useful for debugging and for comparing with HuffmanService.encode. */
+    public String toBitString() {
+        char[] chars = new char[Math.toIntExact(bitLength)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('0' + getBit(i));
+        }
+        return new String(chars);
+    }
+
+    public String toString() {
+        return bitLength + " bits in " + bytes.length + " bytes (" + getPadding() + " padding)";
+    }
+}
@@ -0,0 +1,135 @@
+package com.huffman.code;
+
+import java.util.Arrays;
+
+/** A FlatHuffmanTree is a Huffman tree stored in one int array instead of
+ * linked node objects. Internal node k has its 0-branch child at
+ * children[2k] and its 1-branch child at children[2k+1]. A child that is
+ * >= 0 is another internal node; a leaf is stored as ~symbol, which is
+ * negative. That is 8 bytes per internal node and nothing per leaf, and a
+ * decode walks one array instead of chasing pointers.
+ *
+ * A tree of a single leaf has no internal nodes, and gives that symbol the
+ * 1-bit code 0. */
+public class FlatHuffmanTree {
+
+    private final int[] children;
+    private final int root; // internal node index, or ~symbol for one leaf
+
+    /** A tree with the given children and root, encoded as described
+     * above. children is not copied. */
+    FlatHuffmanTree(int[] children, int root) {
+        this.children = children;
+        this.root = root;
+    }
+
+    /** Return the Huffman tree for freqs, built by TwoQueueBuilder
+     * @throws IllegalArgumentException if freqs is empty */
+    public static FlatHuffmanTree fromFrequencies(FrequencyTable freqs) {
+        return TwoQueueBuilder.buildFlatTree(freqs);
+    }
+
+    /** Return a CodeTable for symbols 0..alphabetSize-1 that gives each
+     * leaf the branches from the root down to it: a 0 bit for children[2k]
+     * and a 1 bit for children[2k+1]. The tree is walked with an explicit
+     * stack, so its depth is not limited by the call stack.
+     * @throws IllegalStateException if the tree is deeper than
+     * CanonicalCode.MAX_CODE_LENGTH levels */
+    public CodeTable buildCodeTable(int alphabetSize) {
+        CodeTable table = new CodeTable(alphabetSize);
+        if (root < 0) {
+            table.set(~root, 0, 1);
+            return table;
+        }
+        //codes[i] and lengths[i] belong to the node at stack position i
+        IntAList stack = new IntAList();
+        long[] codes = new long[16];
+        int[] lengths = new int[16];
+        stack.append(root);
+        while (stack.size() > 0) {
+            int n = stack.pop();
+            long code = codes[stack.size()];
+            int length = lengths[stack.size()];
+            if (n < 0) {
+                table.set(~n, code, length);
+                continue;
+            }
+            if (length == CanonicalCode.MAX_CODE_LENGTH) {
+                throw new IllegalStateException("tree is deeper than 64 levels");
+            }
+            if (stack.size() + 2 > codes.length) {
+                codes = Arrays.copyOf(codes, codes.length * 2);
+                lengths = Arrays.copyOf(lengths, lengths.length * 2);
+            }
+            for (int bit = 1; bit >= 0; bit--) {
+                codes[stack.size()] = (code << 1) | bit;
+                lengths[stack.size()] = length + 1;
+                stack.append(children[2 * n + bit]);
+            }
+        }
+        return table;
+    }
+
+    /** Return the number of internal nodes */
+    public int getInternalNodeCount() {
+        return children.length / 2;
+    }
+
+    /** Decode and consume one symbol from in, walking the tree from the
+     * root. Up to 32 bits are peeked at a time and skipped once the leaf
+     * is reached, instead of reading one bit per branch. */
+    public int decodeSymbol(BitReader in) {
+        int n = root;
+        if (n < 0) {
+            in.readBit();
+            return ~n;
+        }
+        while (true) {
+            int bits = in.peekBits(32);
+            for (int used = 1; used <= 32; used++) {
+                n = children[2 * n + ((bits >>> (32 - used)) & 1)];
+                if (n < 0) {
+                    in.skipBits(used);
+                    return ~n;
+                }
+            }
+            in.skipBits(32);
+        }
+    }
+
+    /** Decode every code in data as a char and return them as a String
+     * @throws IllegalStateException if data ends inside a code */
+    public String decodeString(EncodedData data) {
+        BitReader in = new BitReader(data);
+        StringBuilder sb = new StringBuilder();
+        while (in.bitsRemaining() > 0) {
+            sb.append((char) decodeSymbol(in));
+        }
+        if (in.isOverrun() || in.bitsRemaining() < 0) {
+            throw new IllegalStateException("truncated code in input");
+        }
+        return sb.toString();
+    }
+
+    /** Decode every '0'/'1' char of bits as a branch, and return the
+     * decoded symbols as a String. A trailing partial code is ignored. */
+    public String decodeBitString(CharSequence bits) {
+        StringBuilder sb = new StringBuilder();
+        if (root < 0) {
+            //Single leaf: every bit is one char
+            for (int x = 0; x < bits.length(); x++) {
+                sb.append((char) ~root);
+            }
+            return sb.toString();
+        }
+        int n = root;
+        for (int x = 0; x < bits.length(); x++) {
+            n = children[2 * n + (bits.charAt(x) == '0' ? 0 : 1)];
+            if (n < 0) {
+                sb.append((char) ~n);
+                n = root;
+            }
+        }
+        return sb.toString();
+    }
+}
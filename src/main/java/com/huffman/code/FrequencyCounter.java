@@ -0,0 +1,134 @@
+package com.huffman.code;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/** FrequencyCounter counts symbol frequencies in parallel. The input is split
+ * across a ForkJoinPool into ranges; each task fills its own primitive
+ * histogram with no sharing or boxing, and the histograms are summed as the
+ * tasks join. Inputs smaller than one range are counted on the calling
+ * thread. */
+public class FrequencyCounter {
+
+    /** Ranges are never split below this many symbols */
+    static final int MIN_RANGE = 1 << 16;
+
+    /** Char ranges are never split below this many chars. Char histograms
+     * are 512 KiB each, so their ranges are kept larger. */
+    static final int MIN_CHAR_RANGE = 16 * MIN_RANGE;
+
+    /** Number of ranges per pool thread, so uneven threads balance out */
+    static final int RANGES_PER_THREAD = 4;
+
+    private FrequencyCounter() {
+    }
+
+    /** Return a dense table of the number of times each char occurs in
+     * data, counting in the common pool. */
+    public static FrequencyTable countChars(CharSequence data) {
+        return countChars(data, ForkJoinPool.commonPool());
+    }
+
+    /** Return a dense table of the number of times each char occurs in
+     * data, counting in pool. */
+    public static FrequencyTable countChars(CharSequence data, ForkJoinPool pool) {
+        int range = rangeSize(data.length(), pool, MIN_CHAR_RANGE);
+        return FrequencyTable.wrap(pool.invoke(new CharTask(data, 0, data.length(), range)));
+    }
+
+    /** Return a dense table of the number of times each unsigned byte value
+     * occurs between data's position and limit, counting in the common
+     * pool. data's position is not changed. */
+    public static FrequencyTable countBytes(ByteBuffer data) {
+        return countBytes(data, ForkJoinPool.commonPool());
+    }
+
+    /** Return a dense table of the number of times each unsigned byte value
+     * occurs between data's position and limit, counting in pool. data's
+     * position is not changed. */
+    public static FrequencyTable countBytes(ByteBuffer data, ForkJoinPool pool) {
+        int range = rangeSize(data.remaining(), pool, MIN_RANGE);
+        return FrequencyTable.wrap(pool.invoke(new ByteTask(data, data.position(), data.limit(), range)));
+    }
+
+    /* Return the range size that splits length symbols into about
+     * RANGES_PER_THREAD ranges per pool thread, but no smaller than min */
+    private static int rangeSize(int length, ForkJoinPool pool, int min) {
+        int ranges = pool.getParallelism() * RANGES_PER_THREAD;
+        return Math.max(min, length / ranges + 1);
+    }
+
+    /* Sum the counts of b into a, and return a */
+    private static long[] merge(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+        return a;
+    }
+
+    /** Counts chars in data[from..to-1], splitting ranges longer than range */
+    private static class CharTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence data;
+        private final int from;
+        private final int to;
+        private final int range;
+
+        CharTask(CharSequence data, int from, int to, int range) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.range = range;
+        }
+
+        protected long[] compute() {
+            if (to - from > range) {
+                int mid = (from + to) >>> 1;
+                CharTask left = new CharTask(data, from, mid, range);
+                left.fork();
+                long[] right = new CharTask(data, mid, to, range).compute();
+                return merge(right, left.join());
+            }
+            long[] counts = new long[Character.MAX_VALUE + 1];
+            for (int i = from; i < to; i++) {
+                counts[data.charAt(i)]++;
+            }
+            return counts;
+        }
+    }
+
+    /** Counts bytes in data[from..to-1], splitting ranges longer than range.
+     * Reads use absolute gets, so tasks can share data. */
+    private static class ByteTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer data;
+        private final int from;
+        private final int to;
+        private final int range;
+
+        ByteTask(ByteBuffer data, int from, int to, int range) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.range = range;
+        }
+
+        protected long[] compute() {
+            if (to - from > range) {
+                int mid = (from + to) >>> 1;
+                ByteTask left = new ByteTask(data, from, mid, range);
+                left.fork();
+                long[] right = new ByteTask(data, mid, to, range).compute();
+                return merge(right, left.join());
+            }
+            long[] counts = new long[256];
+            for (int i = from; i < to; i++) {
+                counts[data.get(i) & 0xFF]++;
+            }
+            return counts;
+        }
+    }
+}
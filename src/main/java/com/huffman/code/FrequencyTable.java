@@ -0,0 +1,171 @@
+package com.huffman.code;
+
+import java.util.Arrays;
+
+/** A FrequencyTable counts how often each symbol occurs, without boxing.
+ * Symbols are non-negative ints. A dense table is a long[] indexed by
+ * symbol, for small alphabets such as bytes or the BMP chars. A sparse
+ * table is an open-addressing hash table with int keys and long counts,
+ * for large alphabets where only a few symbols occur. Neither allocates
+ * when counting a symbol it has seen before. */
+public class FrequencyTable {
+
+    private static final int EMPTY = -1; // key of an unused sparse slot
+
+    private long[] counts; // dense: count per symbol; sparse: count per slot
+    private int[] keys; // sparse: symbol per slot; null if dense
+    private int distinct; // number of symbols with a non-zero count
+
+    /** A sparse table, with room for 16 symbols before it grows */
+    public FrequencyTable() {
+        keys = new int[32];
+        Arrays.fill(keys, EMPTY);
+        counts = new long[32];
+    }
+
+    /** A dense table for symbols 0..alphabetSize-1 */
+    public FrequencyTable(int alphabetSize) {
+        counts = new long[alphabetSize];
+    }
+
+    /** Return a dense table backed by counts, where counts[s] is the count
+     * of symbol s. counts is not copied. */
+    public static FrequencyTable wrap(long[] counts) {
+        FrequencyTable table = new FrequencyTable(0);
+        table.counts = counts;
+        for (long c : counts) {
+            if (c != 0) {
+                table.distinct++;
+            }
+        }
+        return table;
+    }
+
+    /** Return true if this table is array-indexed by symbol */
+    public boolean isDense() {
+        return keys == null;
+    }
+
+    /** Return the number of symbols with a non-zero count */
+    public int size() {
+        return distinct;
+    }
+
+    /** Add 1 to the count of symbol s.
+     * @throws IndexOutOfBoundsException if this table is dense and s is
+     * outside its alphabet, or s is negative */
+    public void increment(int s) {
+        add(s, 1);
+    }
+
+    /** Add count to the count of symbol s.
+     * Precondition: count >= 0
+     * @throws IndexOutOfBoundsException if this table is dense and s is
+     * outside its alphabet, or s is negative */
+    public void add(int s, long count) {
+        if (s < 0) {
+            throw new IndexOutOfBoundsException(s);
+        }
+        if (count == 0) {
+            return;
+        }
+        if (keys == null) {
+            if (counts[s] == 0) {
+                distinct++;
+            }
+            counts[s] += count;
+            return;
+        }
+        int slot = find(s);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = s;
+            distinct++;
+            if (distinct * 2 > keys.length) {
+                counts[slot] = count;
+                grow();
+                return;
+            }
+        }
+        counts[slot] += count;
+    }
+
+    /** Add the count of every symbol in other to this table */
+    public void addAll(FrequencyTable other) {
+        int[] symbols = other.symbols();
+        for (int s : symbols) {
+            add(s, other.get(s));
+        }
+    }
+
+    /** Return the count of symbol s, 0 if it has not occurred */
+    public long get(int s) {
+        if (keys == null) {
+            return s >= 0 && s < counts.length ? counts[s] : 0;
+        }
+        int slot = find(s);
+        return keys[slot] == EMPTY ? 0 : counts[slot];
+    }
+
+    /** Return the symbols with a non-zero count, in increasing order */
+    public int[] symbols() {
+        int[] symbols = new int[distinct];
+        int i = 0;
+        if (keys == null) {
+            for (int s = 0; s < counts.length; s++) {
+                if (counts[s] != 0) {
+                    symbols[i++] = s;
+                }
+            }
+        } else {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY) {
+                    symbols[i++] = keys[slot];
+                }
+            }
+            Arrays.sort(symbols);
+        }
+        return symbols;
+    }
+
+    /** Return one more than the largest symbol with a non-zero count */
+    public int alphabetSize() {
+        int[] symbols = symbols();
+        return symbols.length == 0 ? 0 : symbols[symbols.length - 1] + 1;
+    }
+
+    /** Return the sum of all counts */
+    public long total() {
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        return total;
+    }
+
+    /* Return the slot holding s, or the empty slot where it belongs.
+     * Linear probing from a multiplicative hash of s. */
+    private int find(int s) {
+        int mask = keys.length - 1;
+        int slot = (s * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(keys.length));
+        while (keys[slot] != EMPTY && keys[slot] != s) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /* Double the number of sparse slots and reinsert every symbol */
+    private void grow() {
+        int[] oldKeys = keys;
+        long[] oldCounts = counts;
+        keys = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        counts = new long[keys.length];
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                int newSlot = find(oldKeys[slot]);
+                keys[newSlot] = oldKeys[slot];
+                counts[newSlot] = oldCounts[slot];
+            }
+        }
+    }
+}
@@ -1,49 +1,45 @@
 package com.huffman.code;
 
-/** A hash table modeled after java.util.Map. It uses chaining for collision
- * resolution and grows its underlying storage by a factor of 2 when the load
- * factor exceeds 0.8. */
+/** A hash table modeled after java.util.Map. It uses open addressing with
+ * linear probing: keys and values sit in two flat arrays whose length is a
+ * power of two, so a lookup is a multiply, a shift and a short scan of
+ * adjacent slots, and no entry objects are allocated. Removal shifts the
+ * following entries of the probe run back instead of leaving tombstones.
+ * The arrays grow by a factor of 2 when the load factor would exceed the
+ * maximum given at construction (0.75 by default). */
 public class HashTable<K,V> {
 
-    protected Pair[] buckets; // array of list nodes that store K,V pairs
-    protected int size; // how many items currently in the map
-
-
-    /** class Pair stores a key-value pair and a next pointer for chaining
-     * multiple values together in the same bucket, linked-list style*/
-    public class Pair {
-        protected K key;
-        protected V value;
-        protected Pair next;
-
-        /** constructor: sets key and value */
-        public Pair(K k, V v) {
-            key = k;
-            value = v;
-            next = null;
-        }
+    /** The default maximum load factor */
+    public static final double DEFAULT_LOAD_FACTOR = 0.75;
 
-        /** constructor: sets key, value, and next */
-        public Pair(K k, V v, Pair nxt) {
-            key = k;
-            value = v;
-            next = nxt;
-        }
-
-        /** returns (k, v) String representation of the pair */
-        public String toString() {
-            return "(" + key + ", " + value + ")";
-        }
-    }
+    protected Object[] keys; // key of each slot, null if the slot is empty
+    protected Object[] values; // value of each slot
+    protected int size; // how many items currently in the map
+    protected int shift; // 32 - log2(capacity): hash bits kept by index
+    protected int threshold; // grow when size would exceed this
+    protected final double loadFactor;
 
-    /** constructor: initialize with default capacity 17 */
+    /** constructor: initialize with default capacity 16 */
     public HashTable() {
-        this(17);
+        this(16);
     }
 
-    /** constructor: initialize the given capacity */
+    /** constructor: initialize with at least the given capacity and the
+     * default load factor */
     public HashTable(int capacity) {
-        buckets = createBucketArray(capacity);
+        this(capacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /** constructor: initialize with at least the given capacity, growing
+     * when more than loadFactor of the slots would be full.
+     * @throws IllegalArgumentException if loadFactor is not in (0, 1) */
+    public HashTable(int capacity, double loadFactor) {
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("bad load factor " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        int c = Math.min(Math.max(2, capacity), 1 << 30);
+        allocate(Integer.highestOneBit(c - 1) << 1);
     }
 
     /** Return the size of the map (the number of key-value mappings in the
@@ -52,202 +48,135 @@ public class HashTable<K,V> {
         return size;
     }
 
-    /** Return the current capacity of the table (the size of the buckets
-     * array) */
+    /** Return the current capacity of the table (the number of slots) */
     public int getCapacity() {
-        return buckets.length;
+        return keys.length;
     }
 
     /** Return the value to which the specified key is mapped, or null if this
      * map contains no mapping for the key.
      * Runtime: average case O(1); worst case O(size) */
+    @SuppressWarnings("unchecked")
     public V get(K key) {
-        //Hash V value into a key
-        //Hash to index of bucket in HashTable using
-        // mod of key hash and table size
-        int keyHash = key.hashCode();
-        int keyIdx = Math.absExact(keyHash % getCapacity());
-        Pair node = buckets[keyIdx];
-        boolean containsNode = node != null;
-
-        // Search through each node in bucket
-        // to determine if any has matching key.
-        //Return value of matching key (which is index of value in Heap) if found
-        //Otherwise return null (value is not in HashTable or Heap)
-        if (containsNode) {
-            while (node != null) {
-                if (node.key.equals(key)) {
-                    return node.value;
-                }
-                node = node.next;
-            }
-        }
-        return null;
+        int i = find(key);
+        return keys[i] == null ? null : (V) values[i];
     }
 
     /** Associate the specified value with the specified key in this map. If
      * the map previously contained a mapping for the key, the old value is
      * replaced. Return the previous value associated with key, or null if
-     * there was no mapping for key. If the load factor exceeds 0.8 after this
-     * insertion, grow the array by a factor of two and rehash.
+     * there was no mapping for key. If the load factor would exceed the
+     * maximum, grow the arrays by a factor of two and rehash first.
      * Precondition: val is not null.
-     * Runtime: average case O(1); worst case O(size + a.length)*/
+     * Runtime: average case O(1); worst case O(size + capacity)*/
+    @SuppressWarnings("unchecked")
     public V put(K key, V val) {
-        //Hash V value into a key
-        //Hash to index of bucket in HashTable using
-        // mod of key hash and table size
-        int keyHash = key.hashCode();
-        int keyIdx = Math.absExact(keyHash % getCapacity());
-        Pair putNode = new Pair(key, val);
-        boolean containsNode = buckets[keyIdx] != null;
-
-        // When nodes exist, search through each node in bucket to determine if any has matching key.
-        //If  matching key is found, update existing node's value with val
-        //Else, chain the (key , val) pair to the last node in the bucket
-        if (containsNode) {
-            Pair node = buckets[keyIdx];
-            while (node != null) {
-                if (node.key.equals(key)) {
-                    V oldValue = node.value;
-                    node.value = val;
-                    return oldValue;
-                } else if (node.next == null) {
-                    node.next = putNode;
-                    size++;
-                    growIfNeeded();
-                    return null;
-                }
-                node = node.next;
-            }
+        int i = find(key);
+        if (keys[i] != null) {
+            V oldValue = (V) values[i];
+            values[i] = val;
+            return oldValue;
+        }
+        if (size == threshold) {
+            grow();
+            i = find(key);
         }
-        // If no nodes exist in bucket, add key, value as first node.
-        buckets[keyIdx] = putNode;
+        keys[i] = key;
+        values[i] = val;
         size++;
-        growIfNeeded();
         return null;
     }
 
     /** Return true if this map contains a mapping for the specified key.
      *  Runtime: average case O(1); worst case O(size) */
     public boolean containsKey(K key) {
-        return get(key) != null;
+        return keys[find(key)] != null;
     }
 
     /** Remove the mapping for the specified key from this map if present.
      *  Return the previous value associated with key, or null if there was no
      *  mapping for key.
      *  Runtime: average case O(1); worst case O(size)*/
+    @SuppressWarnings("unchecked")
     public V remove(K key) {
-        //Check if key (value) in the HashTable
-        if (containsKey(key)){
-            //Get index of key (value)
-            int keyHash = key.hashCode();
-            int keyIdx = Math.absExact(keyHash % getCapacity());
-            Pair node = buckets[keyIdx];
-
-            //Search through each node in bucket to find matching key.
-            //Set the node to null (i.e., remove it)
-            //Update node's next pointer if next pointer not null
-            //Reduce size of table
-            if (node.key.equals(key)){
-                V oldValue = node.value;
-                buckets[keyIdx] = node.next != null ?
-                        node.next : null;
-                size--;
-                return oldValue;
-            }else {
-                while (node.next != null) {
-                    if (node.next.key.equals(key)) {
-                        V oldValue = node.next.value;
-                        node.next = node.next.next != null ?
-                                node.next.next : null;
-                        size--;
-                        return oldValue;
-                    }
-                    node = node.next;
-                }
+        int hole = find(key);
+        if (keys[hole] == null) {
+            return null;
+        }
+        V oldValue = (V) values[hole];
+        size--;
+
+        //Shift back each later entry of the run that may sit in the hole:
+        //one whose home slot is not cyclically in (hole, i]
+        int mask = keys.length - 1;
+        for (int i = (hole + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+            int home = index(keys[i]);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
             }
         }
-        return null;
+        keys[hole] = null;
+        values[hole] = null;
+        return oldValue;
     }
 
-    /* Helper method to rehash values from old array bucket into new array bucket
-    when growIfNeeded is called
-     */
-    private void putGrowIfNeeded(K key, V val) {
-        //Hash key into it's hashcode
-        //Hash to index of bucket in HashTable using mod of key hash and table size
-        int keyHash = key.hashCode();
-        int keyIdx = Math.absExact(keyHash % getCapacity());
-        Pair putNode = new Pair(key, val);
-        boolean containsNode = buckets[keyIdx] != null;
-
-        // If nodes exist in the bucket, chain the pair to the last node in the bucket
-        if (containsNode) {
-            Pair node = buckets[keyIdx];
-            while (node != null) {
-                if (node.next == null) {
-                    node.next = putNode;
-                    break;
-                }
-                node = node.next;
-            }
-        }else {
-            buckets[keyIdx] = putNode;
+    /* Return the slot holding key, or the empty slot ending its probe run */
+    private int find(Object key) {
+        int mask = keys.length - 1;
+        int i = index(key);
+        Object k;
+        while ((k = keys[i]) != null && !k.equals(key)) {
+            i = (i + 1) & mask;
         }
-        size++;
+        return i;
     }
-    // suggested helper method:
-    /* check the load factor; if it exceeds 0.8, double the capacity 
-     * and rehash values from the old array to the new array */
-    private void growIfNeeded() {
-        double loadFactor = (double) getSize() / getCapacity();
-        boolean exceedMaxLoadFactor = loadFactor > 0.8;
-
-        //Temporarily store current buckets key/value pairs
-        //Double capacity of buckets
-        if (exceedMaxLoadFactor){
-            Pair[] oldBuckets = buckets;
-            int newCapacity = getCapacity() * 2;
-            buckets = createBucketArray(newCapacity);
-            size = 0;
-
-            //Rehash all entries from old buckets back into
-            //New, larger buckets HashTable
-            for (Pair bucket : oldBuckets) {
-                Pair node = bucket;
-                while (node != null) {
-                    putGrowIfNeeded(node.key, node.value);
-                    node = node.next;
+
+    /* Return the home slot of key. Multiplying by the golden ratio mixes
+     * every bit of the hash into the top bits, which index the table. */
+    private int index(Object key) {
+        return (key.hashCode() * 0x9E3779B9) >>> shift;
+    }
+
+    /* Double the capacity and reinsert every entry */
+    private void grow() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != null) {
+                int i = index(oldKeys[j]);
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
                 }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
             }
         }
     }
 
+    /* Replace the arrays with empty ones of the given power-of-two capacity */
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
     /* useful method for debugging - prints a representation of the current
-     * state of the hash table by traversing each bucket and printing the
-     * key-value pairs in linked-list representation */
+     * state of the hash table by printing each slot's key-value pair and
+     * the slot its key hashes to */
     protected void dump() {
         System.out.println("Table size: " + getSize() + " capacity: " +
                 getCapacity());
-        for (int i = 0; i < buckets.length; i++) {
-            System.out.print(i + ": --");
-            Pair node = buckets[i];
-            while (node != null) {
-                System.out.print(">" + node + "--");
-                node = node.next;
-
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                System.out.println(i + ": --|");
+            } else {
+                System.out.println(i + ": (" + keys[i] + ", " + values[i] + ") home " + index(keys[i]));
             }
-            System.out.println("|");
         }
     }
-
-    /*  Create and return a bucket array with the specified size, initializing
-     *  each element of the bucket array to be an empty LinkedList of Pairs.
-     *  The casting and warning suppression is necessary because generics and
-     *  arrays don't play well together.*/
-    @SuppressWarnings("unchecked")
-    protected Pair[] createBucketArray(int size) {
-        return (Pair[]) new HashTable<?,?>.Pair[size];
-    }
 }
@@ -51,6 +51,15 @@ public final class Heap<V, P extends Comparable<P>> {
         map = new HashTable<V, Integer>();
     }
 
+    /** Constructor: a heap of values vs[i] with priorities ps[i], built
+     * bottom-up in linear time.
+     *  @throws IllegalArgumentException if vs and ps differ in size or vs
+     *  contains a value twice.*/
+    public Heap(AList<V> vs, AList<P> ps) throws IllegalArgumentException {
+        this();
+        addAll(vs, ps);
+    }
+
     /** An Entry contains a value and a priority. */
     class Entry {
         public V value;
@@ -86,6 +95,43 @@ public final class Heap<V, P extends Comparable<P>> {
         bubbleUp(eIdx);
     }
 
+    /** Add each value vs[i] with priority ps[i] to the heap. If the batch
+     *  is at least as large as the heap, the whole heap is rebuilt
+     *  bottom-up (Floyd's method) in time linear in its new size, instead
+     *  of bubbling up each value. Nothing is added if an exception is
+     *  thrown. Precondition: no priority is null.
+     *  @throws IllegalArgumentException if vs and ps differ in size, or a
+     *  value of vs is already in the heap or occurs twice in vs.*/
+    public void addAll(AList<V> vs, AList<P> ps) throws IllegalArgumentException {
+        int n = vs.size();
+        if (ps.size() != n) {
+            throw new IllegalArgumentException();
+        }
+        //Index every value first, so a duplicate leaves the heap unchanged
+        int oldSize = size();
+        for (int i = 0; i < n; i++) {
+            if (map.containsKey(vs.get(i))) {
+                for (int j = 0; j < i; j++) {
+                    map.remove(vs.get(j));
+                }
+                throw new IllegalArgumentException();
+            }
+            map.put(vs.get(i), oldSize + i);
+        }
+        for (int i = 0; i < n; i++) {
+            c.append(new Entry(vs.get(i), ps.get(i)));
+        }
+        if (n < oldSize) {
+            for (int i = oldSize; i < size(); i++) {
+                bubbleUp(i);
+            }
+        } else {
+            for (int k = size() / 2 - 1; k >= 0; k--) {
+                bubbleDown(k);
+            }
+        }
+    }
+
     /** Return the number of values in this heap.
      *  This operation takes constant time. */
     public int size() {
@@ -167,6 +213,29 @@ public final class Heap<V, P extends Comparable<P>> {
         }
     }
 
+    /** Remove and return the element of this heap with lowest priority,
+     *  and add v with priority p, bubbling down once instead of bubbling
+     *  down for the poll and up for the add. In the Huffman merge loop,
+     *  poll the first node, then pollAndAdd the merged node in place of
+     *  the second. v may be the value that is removed.
+     *  @throws NoSuchElementException if the heap is empty.
+     *  @throws IllegalArgumentException if v is already in the heap and is
+     *  not the value removed.*/
+    public V pollAndAdd(V v, P p) throws NoSuchElementException, IllegalArgumentException {
+        if (size() == 0) {
+            throw new NoSuchElementException();
+        }
+        Entry firstEntry = c.get(0);
+        if (!firstEntry.value.equals(v) && map.containsKey(v)) {
+            throw new IllegalArgumentException();
+        }
+        map.remove(firstEntry.value);
+        c.put(0, new Entry(v, p));
+        map.put(v, 0);
+        bubbleDown(0);
+        return firstEntry.value;
+    }
+
     /** Get left child of c[k]
      *  Null returned if right child does not exist
      *  Precondition: c[i] is not null*/
@@ -1,7 +1,58 @@
 package com.huffman.code;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 public class HuffmanApp {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("compress")) {
+            long inSize = Files.size(Path.of(args[1]));
+            long outSize = HuffmanFiles.compress(Path.of(args[1]), Path.of(args[2]));
+            System.out.println("compressed " + inSize + " bytes into " + outSize + " bytes");
+            return;
+        }
+        if (args.length == 3 && args[0].equals("decompress")) {
+            long outSize = HuffmanFiles.decompress(Path.of(args[1]), Path.of(args[2]));
+            System.out.println("decompressed " + outSize + " bytes");
+            return;
+        }
+        if (args.length == 3 && args[0].equals("pack")) {
+            long outSize = BlockCompressor.compress(Path.of(args[1]), Path.of(args[2]));
+            System.out.println("packed " + Files.size(Path.of(args[1])) + " bytes into " + outSize + " bytes");
+            return;
+        }
+        if (args.length == 3 && args[0].equals("unpack")) {
+            try (BlockReader reader = new BlockReader(Path.of(args[1]))) {
+                reader.decompress(Path.of(args[2]));
+                System.out.println("unpacked " + reader.getLength() + " bytes");
+            }
+            return;
+        }
+        if (args.length == 2 && args[0].equals("verify")) {
+            try (BlockReader reader = new BlockReader(Path.of(args[1]))) {
+                reader.verify();
+                System.out.println(reader.getBlockCount() + " blocks of " + reader.getLength() + " bytes ok");
+            }
+            return;
+        }
+        if (args.length == 3 && args[0].equals("train")) {
+            String corpus = Files.readString(Path.of(args[1]));
+            HuffmanCodec.trainDictionary(corpus).save(Path.of(args[2]));
+            System.out.println("saved dictionary of " + Files.size(Path.of(args[2])) + " bytes");
+            return;
+        }
+        if (args.length != 0) {
+            System.err.println("usage: HuffmanApp");
+            System.err.println("       HuffmanApp compress <input file> <output file>");
+            System.err.println("       HuffmanApp decompress <input file> <output file>");
+            System.err.println("       HuffmanApp pack <input file> <output file>");
+            System.err.println("       HuffmanApp unpack <packed file> <output file>");
+            System.err.println("       HuffmanApp verify <packed file>");
+            System.err.println("       HuffmanApp train <corpus file> <dictionary file>");
+            System.exit(2);
+        }
+
         HuffmanService hs = new HuffmanService();
         String decodedString;
         String inputString = "pipppperrr pippppar piippppeer";
@@ -15,6 +66,9 @@ public class HuffmanApp {
         boolean stringsMatch = decodedString.equals(inputString);
         System.out.println(stringsMatch);
 
+        EncodedData encodedData = new HuffmanService().encodeBits(inputString);
+        System.out.println(inputString.length() + " chars packed into " + encodedData);
+
     }
 
 }
@@ -0,0 +1,184 @@
+package com.huffman.code;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/** A HuffmanByteCodec is the byte counterpart of HuffmanCodec: a fixed
+ * canonical code over the 256 byte values, built once and safe to share
+ * between threads. It works on byte[] and ByteBuffer directly, so binary
+ * and UTF-8 data need no conversion to chars, and every table is a dense
+ * array indexed by the unsigned byte.
+ *
+ * encode(ByteBuffer, BitWriter) and decode(BitReader, ByteBuffer) also
+ * take channel-backed writers and readers, for streams of any length.
+ * encode(ByteBuffer, BitWriter, int) also returns a SyncIndex, so
+ * decodeRange can decode a slice without decoding everything before it. */
+public final class HuffmanByteCodec {
+
+    /** The number of byte values */
+    public static final int ALPHABET_SIZE = 256;
+
+    private final CanonicalCode code;
+    private final TableDecoder decoder;
+
+    /** A codec for the bytes counted in freqs, with codes of at most
+     * CanonicalCode.DEFAULT_MAX_LENGTH bits.
+     * @throws IllegalArgumentException if freqs is empty or counts a
+     * symbol that is not a byte */
+    public HuffmanByteCodec(FrequencyTable freqs) {
+        this(CanonicalCode.fromFrequencies(freqs));
+        if (freqs.alphabetSize() > ALPHABET_SIZE) {
+            throw new IllegalArgumentException("symbol " + (freqs.alphabetSize() - 1) + " is not a byte");
+        }
+    }
+
+    /** A codec for code. The code must not be changed afterwards. */
+    HuffmanByteCodec(CanonicalCode code) {
+        this.code = code;
+        this.decoder = code.buildDecoder();
+    }
+
+    /** Return a codec whose model is the byte frequencies of sample between
+     * its position and limit */
+    public static HuffmanByteCodec train(ByteBuffer sample) {
+        return new HuffmanByteCodec(FrequencyCounter.countBytes(sample));
+    }
+
+    /** Return a codec whose model is the byte frequencies of sample */
+    public static HuffmanByteCodec train(byte[] sample) {
+        return train(ByteBuffer.wrap(sample));
+    }
+
+    /** Return data compressed with its own code, in the form: the code
+     * lengths, a varint byte count, then the packed codes */
+    public static byte[] compress(byte[] data) {
+        if (data.length == 0) {
+            return new byte[0];
+        }
+        HuffmanByteCodec codec = train(data);
+        BitWriter writer = new BitWriter(data.length / 2);
+        codec.code.writeHeader(writer);
+        writer.writeVarLong(data.length);
+        codec.encode(ByteBuffer.wrap(data), writer);
+        return writer.toEncodedData().getBytes();
+    }
+
+    /** Return the data compressed in compressed by compress
+     * @throws IllegalArgumentException if compressed is malformed */
+    public static byte[] decompress(byte[] compressed) {
+        if (compressed.length == 0) {
+            return new byte[0];
+        }
+        BitReader reader = new BitReader(ByteBuffer.wrap(compressed), compressed.length * 8L);
+        HuffmanByteCodec codec = new HuffmanByteCodec(CanonicalCode.readHeader(reader));
+        byte[] data = new byte[Math.toIntExact(reader.readVarLong())];
+        try {
+            codec.decode(reader, ByteBuffer.wrap(data));
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException("malformed codes", e);
+        }
+        if (reader.isOverrun()) {
+            throw new IllegalArgumentException("truncated codes");
+        }
+        return data;
+    }
+
+    /** Return the length of the code for byte b, or 0 if b cannot be
+     * encoded */
+    public int getCodeLength(byte b) {
+        return code.getLength(b & 0xFF);
+    }
+
+    /** Encode data.
+     * @throws IllegalArgumentException if a byte of data is not in the
+     * model */
+    public EncodedData encode(byte[] data) {
+        return encode(ByteBuffer.wrap(data));
+    }
+
+    /** Encode the bytes of data between its position and limit. data's
+     * position is not changed.
+     * @throws IllegalArgumentException if a byte of data is not in the
+     * model */
+    public EncodedData encode(ByteBuffer data) {
+        BitWriter writer = new BitWriter(data.remaining() / 2);
+        code.encode(data, writer);
+        return writer.toEncodedData();
+    }
+
+    /** Write the codes of the bytes of data between its position and limit
+     * to out. data's position is not changed.
+     * @throws IllegalArgumentException if a byte of data is not in the
+     * model */
+    public void encode(ByteBuffer data, BitWriter out) {
+        code.encode(data, out);
+    }
+
+    /** Write the codes of the bytes of data between its position and limit
+     * to out, and return an index with a checkpoint every interval bytes.
+     * Its bit offsets count from the start of out, and its symbols from
+     * data's position. data's position is not changed.
+     * Precondition: interval > 0
+     * @throws IllegalArgumentException if a byte of data is not in the
+     * model */
+    public SyncIndex encode(ByteBuffer data, BitWriter out, int interval) {
+        int length = data.remaining();
+        long[] bitOffsets = new long[SyncIndex.checkpoints(length, interval)];
+        ByteBuffer chunk = data.duplicate();
+        for (int i = 0; i < bitOffsets.length; i++) {
+            int from = data.position() + i * interval;
+            chunk.limit(Math.min(data.limit(), from + interval)).position(from);
+            bitOffsets[i] = out.bitCount();
+            code.encode(chunk, out);
+        }
+        return new SyncIndex(interval, length, bitOffsets);
+    }
+
+    /** Decode every code in data
+     * @throws IllegalStateException if data holds a code not in the model,
+     * or ends inside a code */
+    public byte[] decode(EncodedData data) {
+        BitReader in = new BitReader(data);
+        byte[] out = new byte[(int) Math.min(Integer.MAX_VALUE - 8, data.getBitLength() / 4 + 16)];
+        int n = 0;
+        while (in.bitsRemaining() > 0) {
+            if (n == out.length) {
+                out = Arrays.copyOf(out, out.length * 2);
+            }
+            out[n++] = (byte) decoder.decodeSymbol(in);
+        }
+        if (in.isOverrun() || in.bitsRemaining() < 0) {
+            throw new IllegalStateException("truncated code in input");
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /** Decode bytes from to to - 1 of data, encoded with index by
+     * encode(ByteBuffer, BitWriter, int) into a writer holding only data.
+     * Decoding starts at the checkpoint at or before from.
+     * @throws IndexOutOfBoundsException if from..to is not in the index
+     * @throws IllegalStateException if data holds a code not in the model */
+    public byte[] decodeRange(EncodedData data, SyncIndex index, int from, int to) {
+        index.checkRange(data, from, to);
+        byte[] out = new byte[to - from];
+        if (from == to) {
+            return out;
+        }
+        BitReader in = index.readerAt(data, from);
+        for (int x = from - from % index.getInterval(); x < from; x++) {
+            decoder.decodeSymbol(in);
+        }
+        decoder.decodeBytes(in, ByteBuffer.wrap(out));
+        if (in.isOverrun()) {
+            throw new IllegalStateException("truncated input");
+        }
+        return out;
+    }
+
+    /** Decode bytes from in into dst until dst has no space remaining,
+     * advancing dst's position
+     * @throws IllegalStateException if in holds a code not in the model */
+    public void decode(BitReader in, ByteBuffer dst) {
+        decoder.decodeBytes(in, dst);
+    }
+}
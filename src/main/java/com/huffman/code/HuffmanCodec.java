@@ -0,0 +1,178 @@
+package com.huffman.code;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** A HuffmanCodec encodes and decodes chars with one fixed canonical code.
+ * It is built once from a frequency model and never changes afterwards:
+ * all of its fields are final, and encode and decode keep their working
+ * state in locals. One codec can therefore be shared by any number of
+ * threads without locking.
+ *
+ * Unlike HuffmanService, a codec does not learn from the data it encodes.
+ * A plain codec can only encode the chars in its model. A dictionary codec,
+ * made by trainDictionary, also has an ESCAPE symbol: a char outside the
+ * model is written as the ESCAPE code followed by the char's 16 bits. A
+ * dictionary is trained once, saved with save, and loaded with load, so
+ * messages need neither a tree build nor a header of their own.
+ *
+ * encode(CharSequence, BitWriter, int) also returns a SyncIndex, so
+ * decodeRange can decode a slice without decoding everything before it. */
+public final class HuffmanCodec {
+
+    /** The symbol that introduces a literal char in a dictionary codec */
+    public static final int ESCAPE = 1 << 16;
+
+    private final CanonicalCode code;
+    private final TableDecoder decoder;
+    private final boolean escapes;
+
+    /** A codec for the chars counted in freqs, with codes of at most
+     * CanonicalCode.DEFAULT_MAX_LENGTH bits.
+     * @throws IllegalArgumentException if freqs is empty */
+    public HuffmanCodec(FrequencyTable freqs) {
+        this(CanonicalCode.fromFrequencies(freqs));
+    }
+
+    /** A codec for code. The code must not be changed afterwards. */
+    HuffmanCodec(CanonicalCode code) {
+        this.code = code;
+        this.decoder = code.buildDecoder();
+        this.escapes = code.getLength(ESCAPE) != 0;
+    }
+
+    /** Return a codec whose model is the char frequencies of sample */
+    public static HuffmanCodec train(CharSequence sample) {
+        return new HuffmanCodec(FrequencyCounter.countChars(sample));
+    }
+
+    /** Return a dictionary codec whose model is the char frequencies of
+     * sample, plus an ESCAPE symbol for the chars sample does not have */
+    public static HuffmanCodec trainDictionary(CharSequence sample) {
+        FrequencyTable model = new FrequencyTable();
+        model.addAll(FrequencyCounter.countChars(sample));
+        //Escapes should be rare, so count one
+        model.increment(ESCAPE);
+        return new HuffmanCodec(model);
+    }
+
+    /** Return the codec saved in file by save
+     * @throws IllegalArgumentException if file is not a saved codec */
+    public static HuffmanCodec load(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        BitReader in = new BitReader(ByteBuffer.wrap(bytes), bytes.length * 8L);
+        CanonicalCode code = CanonicalCode.readHeader(in);
+        if (in.isOverrun()) {
+            throw new IllegalArgumentException("truncated code lengths in " + file);
+        }
+        return new HuffmanCodec(code);
+    }
+
+    /** Save the code lengths of this codec to file */
+    public void save(Path file) throws IOException {
+        BitWriter out = new BitWriter();
+        code.writeHeader(out);
+        Files.write(file, out.toEncodedData().getBytes());
+    }
+
+    /** Return true if this codec can encode chars outside its model */
+    public boolean hasEscape() {
+        return escapes;
+    }
+
+    /** Return the length of the code for c, or 0 if c cannot be encoded */
+    public int getCodeLength(char c) {
+        return code.getLength(c);
+    }
+
+    /** Encode data.
+     * @throws IllegalArgumentException if a char of data is not in the
+     * model and this codec has no ESCAPE */
+    public EncodedData encode(CharSequence data) {
+        BitWriter writer = new BitWriter(data.length() / 4);
+        encode(data, 0, data.length(), writer);
+        return writer.toEncodedData();
+    }
+
+    /** Encode data to out, and return an index with a checkpoint every
+     * interval chars. Its bit offsets count from the start of out.
+     * Precondition: interval > 0
+     * @throws IllegalArgumentException if a char of data is not in the
+     * model and this codec has no ESCAPE */
+    public SyncIndex encode(CharSequence data, BitWriter out, int interval) {
+        long[] bitOffsets = new long[SyncIndex.checkpoints(data.length(), interval)];
+        for (int i = 0; i < bitOffsets.length; i++) {
+            int from = i * interval;
+            bitOffsets[i] = out.bitCount();
+            encode(data, from, Math.min(data.length(), from + interval), out);
+        }
+        return new SyncIndex(interval, data.length(), bitOffsets);
+    }
+
+    /* Encode data[from..to-1] to out */
+    private void encode(CharSequence data, int from, int to, BitWriter out) {
+        if (!escapes) {
+            code.encode(data, from, to, out);
+            return;
+        }
+        for (int x = from; x < to; x++) {
+            char c = data.charAt(x);
+            if (code.getLength(c) != 0) {
+                code.encode(c, out);
+            } else {
+                code.encode(ESCAPE, out);
+                out.writeBits(c, 16);
+            }
+        }
+    }
+
+    /** Decode data encoded by this codec, or by another codec with the same
+     * model.
+     * @throws IllegalStateException if data holds a code not in the model */
+    public String decode(EncodedData data) {
+        if (!escapes) {
+            return decoder.decodeString(data);
+        }
+        BitReader in = new BitReader(data);
+        StringBuilder sb = new StringBuilder();
+        while (in.bitsRemaining() > 0) {
+            sb.append(decodeChar(in));
+        }
+        if (in.isOverrun() || in.bitsRemaining() < 0) {
+            throw new IllegalStateException("truncated escape in input");
+        }
+        return sb.toString();
+    }
+
+    /** Decode chars from to to - 1 of data, encoded with index by
+     * encode(CharSequence, BitWriter, int) into a writer holding only
+     * data. Decoding starts at the checkpoint at or before from.
+     * @throws IndexOutOfBoundsException if from..to is not in the index
+     * @throws IllegalStateException if data holds a code not in the model */
+    public String decodeRange(EncodedData data, SyncIndex index, int from, int to) {
+        index.checkRange(data, from, to);
+        if (from == to) {
+            return "";
+        }
+        BitReader in = index.readerAt(data, from);
+        for (int x = from - from % index.getInterval(); x < from; x++) {
+            decodeChar(in);
+        }
+        StringBuilder sb = new StringBuilder(to - from);
+        for (int x = from; x < to; x++) {
+            sb.append(decodeChar(in));
+        }
+        if (in.isOverrun() || in.bitsRemaining() < 0) {
+            throw new IllegalStateException("truncated input");
+        }
+        return sb.toString();
+    }
+
+    /* Decode one char from in, reading the literal after an ESCAPE */
+    private char decodeChar(BitReader in) {
+        int s = decoder.decodeSymbol(in);
+        return (char) (s == ESCAPE ? in.readBits(16) : s);
+    }
+}
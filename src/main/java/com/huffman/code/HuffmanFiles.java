@@ -0,0 +1,85 @@
+package com.huffman.code;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/** HuffmanFiles compresses and decompresses whole files without copying
+ * them onto the heap. The input file is memory-mapped, symbol frequencies
+ * are counted straight from the mapping in parallel, and the packed output
+ * goes to the output file through a BitWriter's direct buffer.
+ *
+ * The compressed file has the same format as a HuffmanOutputStream, but its
+ * code is built from the exact frequencies of the whole file. */
+public class HuffmanFiles {
+
+    /** Files are mapped this many bytes at a time */
+    static final long MAP_CHUNK_SIZE = 1L << 30;
+
+    private HuffmanFiles() {
+    }
+
+    /** Compress the file in into the file out, replacing out if it exists.
+     * Return the size of the compressed file in bytes. */
+    public static long compress(Path in, Path out) throws IOException {
+        try (FileChannel input = FileChannel.open(in, StandardOpenOption.READ);
+             FileChannel output = FileChannel.open(out, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            FrequencyTable freqs = countFrequencies(input);
+            freqs.increment(HuffmanOutputStream.END_OF_STREAM);
+            CanonicalCode code = CanonicalCode.fromFrequencies(freqs);
+
+            BitWriter writer = new BitWriter(output);
+            code.writeHeader(writer);
+            for (long pos = 0; pos < input.size(); pos += MAP_CHUNK_SIZE) {
+                code.encode(map(input, pos), writer);
+            }
+            code.encode(HuffmanOutputStream.END_OF_STREAM, writer);
+            writer.finish();
+            return output.size();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Decompress the file in, written by compress or a
+     * HuffmanOutputStream, into the file out, replacing out if it exists.
+     * Return the size of the decompressed file in bytes. */
+    public static long decompress(Path in, Path out) throws IOException {
+        try (InputStream input = new HuffmanInputStream(FileChannel.open(in, StandardOpenOption.READ));
+             FileChannel output = FileChannel.open(out, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            byte[] buffer = new byte[BitWriter.SINK_BUFFER_SIZE];
+            int n;
+            while ((n = input.read(buffer)) > 0) {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, n);
+                while (bytes.hasRemaining()) {
+                    output.write(bytes);
+                }
+            }
+            return output.size();
+        }
+    }
+
+    /** Return a dense table of the number of times each byte value occurs in
+     * the file open on channel. The table has room for the END_OF_STREAM
+     * symbol, left 0. */
+    static FrequencyTable countFrequencies(FileChannel channel) throws IOException {
+        FrequencyTable freqs = new FrequencyTable(HuffmanOutputStream.END_OF_STREAM + 1);
+        for (long pos = 0; pos < channel.size(); pos += MAP_CHUNK_SIZE) {
+            freqs.addAll(FrequencyCounter.countBytes(map(channel, pos)));
+        }
+        return freqs;
+    }
+
+    /* Map up to MAP_CHUNK_SIZE bytes of channel starting at pos */
+    private static MappedByteBuffer map(FileChannel channel, long pos) throws IOException {
+        long size = Math.min(MAP_CHUNK_SIZE, channel.size() - pos);
+        return channel.map(FileChannel.MapMode.READ_ONLY, pos, size);
+    }
+}
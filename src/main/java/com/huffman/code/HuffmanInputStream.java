@@ -0,0 +1,71 @@
+package com.huffman.code;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/** A HuffmanInputStream decompresses data written by a HuffmanOutputStream
+ * as it is read, using a fixed-size input buffer and a decoding table. */
+public class HuffmanInputStream extends InputStream {
+
+    private final ReadableByteChannel in;
+    private final BitReader reader;
+    private TableDecoder decoder; // null until the header is read
+    private boolean endOfStream;
+
+    /** A HuffmanInputStream reading compressed data from in */
+    public HuffmanInputStream(InputStream in) {
+        this(Channels.newChannel(in));
+    }
+
+    /** A HuffmanInputStream reading compressed data from in */
+    public HuffmanInputStream(ReadableByteChannel in) {
+        this.in = in;
+        this.reader = new BitReader(in);
+    }
+
+    /** Return a channel that reads the decompressed bytes of in */
+    public static ReadableByteChannel newChannel(ReadableByteChannel in) {
+        return Channels.newChannel(new HuffmanInputStream(in));
+    }
+
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+    }
+
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        try {
+            if (decoder == null) {
+                decoder = CanonicalCode.readHeader(reader).buildDecoder();
+            }
+            int n = 0;
+            while (n < len && !endOfStream) {
+                int symbol = decoder.decodeSymbol(reader);
+                if (reader.isOverrun()) {
+                    throw new EOFException("compressed data is truncated");
+                }
+                if (symbol == HuffmanOutputStream.END_OF_STREAM) {
+                    endOfStream = true;
+                } else {
+                    b[off + n++] = (byte) symbol;
+                }
+            }
+            return n == 0 ? -1 : n;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            throw new IOException("corrupt compressed data", e);
+        }
+    }
+
+    public void close() throws IOException {
+        in.close();
+    }
+}
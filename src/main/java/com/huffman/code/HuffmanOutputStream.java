@@ -0,0 +1,150 @@
+package com.huffman.code;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/** A HuffmanOutputStream compresses the bytes written to it with a
+ * canonical Huffman code and writes the result to an underlying channel.
+ *
+ * The code is trained on a prefix sample of the data: the first sampleSize
+ * bytes are buffered, counted, and used to build the code, and from then on
+ * every byte is encoded as it arrives. Memory use is the sample plus a
+ * fixed output buffer, whatever the length of the data. Bytes missing from
+ * a full sample still get (long) codes, so later data can contain them. If
+ * the stream is closed before the sample fills, the code is built from the
+ * exact counts of everything written.
+ *
+ * The compressed format is the code-length header of the 257-symbol
+ * alphabet (byte values plus END_OF_STREAM), the packed codes, the
+ * END_OF_STREAM code, and zero padding to a whole byte. */
+public class HuffmanOutputStream extends OutputStream {
+
+    /** The symbol that marks the end of the compressed data */
+    public static final int END_OF_STREAM = 256;
+
+    /** The default number of bytes sampled to build the code */
+    public static final int DEFAULT_SAMPLE_SIZE = 1 << 20;
+
+    private final WritableByteChannel out;
+    private final BitWriter writer;
+    private byte[] sample; // buffered prefix, null once the code is built
+    private int sampled; // number of bytes in sample
+    private CanonicalCode code;
+    private boolean closed;
+
+    /** A HuffmanOutputStream writing to out, sampling the default number of
+     * bytes */
+    public HuffmanOutputStream(OutputStream out) {
+        this(Channels.newChannel(out), DEFAULT_SAMPLE_SIZE);
+    }
+
+    /** A HuffmanOutputStream writing to out, sampling the default number of
+     * bytes */
+    public HuffmanOutputStream(WritableByteChannel out) {
+        this(out, DEFAULT_SAMPLE_SIZE);
+    }
+
+    /** A HuffmanOutputStream writing to out that builds its code from the
+     * first sampleSize bytes.
+     * Precondition: sampleSize > 0 */
+    public HuffmanOutputStream(WritableByteChannel out, int sampleSize) {
+        this.out = out;
+        this.writer = new BitWriter(out);
+        this.sample = new byte[sampleSize];
+    }
+
+    /** Return a channel that compresses the bytes written to it into out */
+    public static WritableByteChannel newChannel(WritableByteChannel out) {
+        return Channels.newChannel(new HuffmanOutputStream(out));
+    }
+
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        try {
+            int end = off + len;
+            //Fill the sample first, and build the code once it is full
+            if (sample != null) {
+                int n = Math.min(len, sample.length - sampled);
+                System.arraycopy(b, off, sample, sampled, n);
+                sampled += n;
+                off += n;
+                if (sampled == sample.length) {
+                    start(true);
+                }
+            }
+            for (int i = off; i < end; i++) {
+                code.encode(b[i] & 0xFF, writer);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Write all complete compressed bytes to the channel. If the sample is
+     * not yet full, this builds the code from the bytes sampled so far. */
+    public void flush() throws IOException {
+        ensureOpen();
+        try {
+            if (sample != null) {
+                start(true);
+            }
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Finish the compressed data and close the channel */
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (sample != null) {
+                start(false);
+            }
+            code.encode(END_OF_STREAM, writer);
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            closed = true;
+            out.close();
+        }
+    }
+
+    /* Build the code from the sample, write the header, and encode the
+     * sampled bytes. If moreData, every byte value gets a code. */
+    private void start(boolean moreData) {
+        FrequencyTable freqs = new FrequencyTable(END_OF_STREAM + 1);
+        for (int i = 0; i < sampled; i++) {
+            freqs.increment(sample[i] & 0xFF);
+        }
+        if (moreData) {
+            for (int s = 0; s < END_OF_STREAM; s++) {
+                freqs.increment(s);
+            }
+        }
+        freqs.increment(END_OF_STREAM);
+        code = CanonicalCode.fromFrequencies(freqs);
+        code.writeHeader(writer);
+
+        for (int i = 0; i < sampled; i++) {
+            code.encode(sample[i] & 0xFF, writer);
+        }
+        sample = null;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("stream closed");
+        }
+    }
+}
@@ -1,123 +1,179 @@
 package com.huffman.code;
 
-import java.util.HashMap;
-import java.util.stream.IntStream;
+import java.nio.ByteBuffer;
 
 public class HuffmanService {
 
-    Heap<Node, Integer> huffHeap = new Heap<>();
-    HashMap<Character, Integer> frequencyCount = new HashMap<>();
-    HuffmanTree huffTree = new HuffmanTree();
-    HashMap<Character, String> encodingMap = new HashMap<>();
+    //Alphabets at least this large are built by TwoQueueBuilder instead of
+    //the heap. Smaller ones use the heap, whose tie-breaking decides which
+    //of several equally short codes each symbol gets.
+    static final int TWO_QUEUE_MIN_SYMBOLS = 256;
+
+    //Tree building never changes a priority, so the heap holds int
+    //priorities and the nodes as FlatHuffmanTree children: ~symbol for a
+    //leaf, k for merged node k
+    IntPriorityHeap huffHeap = new IntPriorityHeap();
+    //Counts are indexed by char, so counting a char never hashes
+    FrequencyTable frequencyCount = new FrequencyTable(Character.MAX_VALUE + 1);
+    FlatHuffmanTree huffTree; // set by buildTree
+    CodeTable encodingMap = new CodeTable(0);
     String encodedString;
+    EncodedData encodedData;
+    TableDecoder tableDecoder;
+    CanonicalCode canonicalCode;
     String decodedString;
 
     public String getEncodedString(){return encodedString;}
+    public EncodedData getEncodedData(){return encodedData;}
 
 
     public void countFrequencies(String data) {
         int stringLength = data.length();
 
-        IntStream.range(0, stringLength)
-                .forEach(x -> {
-                    char c = data.charAt(x);
-                    frequencyCount.put(c,
-                            frequencyCount.getOrDefault(c, 0) + 1);
-                });
-    }
+        //Inputs that split into more than one range are counted in
+        //parallel into primitive histograms
+        if (stringLength > FrequencyCounter.MIN_CHAR_RANGE) {
+            frequencyCount.addAll(FrequencyCounter.countChars(data));
+            return;
+        }
 
-    public void addToHeap() {
-        frequencyCount.keySet()
-                .forEach((key) -> {
-                    int priority = frequencyCount.get(key);
-                    Node n = new Node(key, priority);
-                    huffHeap.add(n, n.freq);
-                });
+        for (int x = 0; x < stringLength; x++) {
+            frequencyCount.increment(data.charAt(x));
+        }
     }
 
-    public void addNodeToHeap(Node n) {
-        huffHeap.add(n, n.freq);
+    public void addToHeap() {
+        if (frequencyCount.size() >= TWO_QUEUE_MIN_SYMBOLS) {
+            //Large alphabets skip the heap; see buildTree
+            return;
+        }
+        //Heapify the leaves in one linear pass instead of bubbling up each
+        int[] symbols = frequencyCount.symbols();
+        int[] leaves = new int[symbols.length];
+        int[] priorities = new int[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            leaves[i] = ~symbols[i];
+            priorities[i] = Math.toIntExact(frequencyCount.get(symbols[i]));
+        }
+        huffHeap.addAll(leaves, priorities, symbols.length);
     }
 
     public void printHeap() {
         while (huffHeap.size() > 0) {
-            System.out.println(huffHeap.poll());
+            int freq = huffHeap.peekPriority();
+            int n = huffHeap.poll();
+            System.out.println((n < 0 ? String.valueOf((char) ~n) : "node " + n) + ":" + freq);
         }
     }
 
     public void buildTree() {
-        while (huffHeap.size() > 1) {
-            Node x = huffHeap.poll();
-            Node y = huffHeap.poll();
-            Node z = new Node(x.freq + y.freq);
-            z.left = x;
-            z.right = y;
-            addNodeToHeap(z);
+        if (huffHeap.size() == 0 && frequencyCount.size() >= TWO_QUEUE_MIN_SYMBOLS) {
+            //Sort the leaves once and merge in linear time
+            huffTree = TwoQueueBuilder.buildFlatTree(frequencyCount);
+            return;
         }
-        Node z = huffHeap.poll();
-        huffTree.insert(z);
-        //huffTree.printTree();
-    }
-
-    public void dfs(Node n, StringBuilder sb) {
-
-        if (n.isLeaf(n)) {
-            String code = sb.toString();
-            encodingMap.put(n.aChar, code);
-        }
-        if (n.left != null) {
-            dfs(n.left, sb.append("0"));
-            sb.delete(sb.length() - 1, sb.length());
-        }
-        if (n.right != null) {
-            dfs(n.right, sb.append("1"));
-            sb.delete(sb.length() - 1, sb.length());
+        //Merged node k's children go straight into children[2k] and
+        //children[2k+1]. It replaces the second smallest at the root, so
+        //each merge costs one poll and one sift-down instead of two polls
+        //and an add. The merged node settles among equal priorities from
+        //the top rather than the bottom, so ties break differently than
+        //with add, and some symbols get other codes of the same length.
+        int[] children = new int[2 * Math.max(huffHeap.size() - 1, 0)];
+        for (int k = 0; huffHeap.size() > 1; k++) {
+            int freq = huffHeap.peekPriority();
+            children[2 * k] = huffHeap.poll();
+            children[2 * k + 1] = huffHeap.peek();
+            huffHeap.pollAndAdd(k, freq + huffHeap.peekPriority());
         }
+        huffTree = new FlatHuffmanTree(children, huffHeap.poll());
     }
 
     public void buildEncoder() {
-        Node n = huffTree.getRoot();
-        StringBuilder sb = new StringBuilder();
-        dfs(n, sb);
+        //The tree only hands out the codes; packed data is decoded by
+        //table lookup, which consumes a whole code per step
+        encodingMap = huffTree.buildCodeTable(frequencyCount.alphabetSize());
+        tableDecoder = encodingMap.buildDecoder();
     }
 
     public String encode(String rawString) {
-        StringBuilder sb = new StringBuilder();
+        encodedString = encodeBits(rawString).toBitString();
+        return encodedString;
+    }
+
+    public EncodedData encodeBits(String rawString) {
         countFrequencies(rawString);
         addToHeap();
         buildTree();
         buildEncoder();
 
-        IntStream.range(0, rawString.length())
-                .forEach(x -> {
-                    char key = rawString.charAt(x);
-                    String code = encodingMap.get(key);
-                    sb.append(code);
-                });
-        encodedString = sb.toString();
-        return encodedString;
+        BitWriter writer = new BitWriter(rawString.length() / 4);
+        encodingMap.encode(rawString, writer);
+        encodedData = writer.toEncodedData();
+        return encodedData;
     }
 
-    public String decode() {
+    public TableDecoder buildDecoder() {
+        tableDecoder = encodingMap.buildDecoder();
+        return tableDecoder;
+    }
 
-        StringBuilder sb = new StringBuilder();
-        Node root = huffTree.getRoot();
-        Node currentNode = root;
-
-        for (int x = 0; x < encodedString.length(); x++ ){
-            char code = encodedString.charAt(x);
-            if (code == '0'){
-                currentNode = currentNode.left;
-            }else {
-                currentNode = currentNode.right;
-            }
-            if (currentNode.isLeaf(currentNode)){
-                sb.append(currentNode.aChar);
-                currentNode = root;
-            }
+    public String decode(EncodedData data) {
+        decodedString = tableDecoder.decodeString(data);
+        return decodedString;
+    }
+
+    public CanonicalCode buildCanonicalEncoder() {
+        //Keep the tree's code lengths, but renumber the codes canonically
+        CodeTable codes = huffTree.buildCodeTable(frequencyCount.alphabetSize());
+        int[] lengths = new int[frequencyCount.alphabetSize()];
+        for (int c = 0; c < lengths.length; c++) {
+            lengths[c] = codes.getLength(c);
+        }
+        canonicalCode = new CanonicalCode(lengths);
+        return canonicalCode;
+    }
+
+    public byte[] encodeCanonical(String rawString) {
+        countFrequencies(rawString);
+        addToHeap();
+        buildTree();
+        buildCanonicalEncoder();
+
+        //Header: the code lengths and the number of chars,
+        //then the packed canonical codes
+        BitWriter writer = new BitWriter(rawString.length() / 4);
+        canonicalCode.writeHeader(writer);
+        writer.writeVarLong(rawString.length());
+        canonicalCode.encode(rawString, writer);
+        return writer.toEncodedData().getBytes();
+    }
+
+    public String decodeCanonical(byte[] encoded) {
+        BitReader reader = new BitReader(ByteBuffer.wrap(encoded), encoded.length * 8L);
+        CanonicalCode code = CanonicalCode.readHeader(reader);
+        TableDecoder decoder = code.buildDecoder();
+        int length = Math.toIntExact(reader.readVarLong());
+
+        StringBuilder sb = new StringBuilder(length);
+        for (int x = 0; x < length; x++) {
+            sb.append((char) decoder.decodeSymbol(reader));
+        }
+        if (reader.isOverrun() || reader.bitsRemaining() < 0) {
+            throw new IllegalStateException("truncated code in input");
         }
         decodedString = sb.toString();
         return decodedString;
     }
+
+    public HuffmanCodec buildCodec() {
+        //The codec reads the frequencies only while it is built, so it
+        //stays valid however the service is used afterwards
+        return new HuffmanCodec(frequencyCount);
+    }
+
+    public String decode() {
+        decodedString = huffTree.decodeBitString(encodedString);
+        return decodedString;
+    }
 }
 
@@ -1,30 +0,0 @@
-package com.huffman.code;
-
-public class HuffmanTree {
-
-    public Node root;
-
-    public void insert(Node z) {
-        root = z;
-    }
-
-    public Node getRoot(){
-        return root;
-    }
-
-    public void printTree() {
-        printSubtree(root, 0);
-    }
-    private void printSubtree(Node n, int level) {
-        if (n == null) {
-            return;
-        }
-        printSubtree(n.right, level + 1);
-        for (int i = 0; i < level; i++) {
-            System.out.print("        ");
-        }
-        System.out.println(n);
-        printSubtree(n.left, level + 1);
-    }
-
-}
\ No newline at end of file
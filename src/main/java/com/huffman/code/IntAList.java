@@ -0,0 +1,123 @@
+package com.huffman.code;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/*
+ * Purpose: An AList of int elements, stored in an int[] without boxing.
+ * It grows and shrinks exactly like AList.
+ */
+
+public class IntAList {
+  protected int size; // number of elements in the list
+  protected int[] a; // the backing array storage
+
+  public int size() {
+    return size;
+  }
+
+  protected int getCap() {
+    return a.length;
+  }
+
+  /** Creates an IntAList with a default capacity of 8 */
+  public IntAList() {
+    this(8);
+  }
+
+  /** Creates an IntAList with the given capacity */
+  public IntAList(int capacity) {
+    a = new int[capacity];
+  }
+
+  /** Grows a, if needed, to hold newSize elements; see AList.growIfNeeded.
+   * This does *not* change the size. */
+  protected void growIfNeeded(int newSize) {
+    if (newSize > a.length) {
+      a = AList.reallocate(a, size, AList.grownCapacity(a.length, newSize), int[]::new);
+    }
+  }
+
+  /** Grows the capacity, if needed, to hold at least minCapacity elements
+   * without further allocation. Does not change the size. */
+  public void ensureCapacity(int minCapacity) {
+    growIfNeeded(minCapacity);
+  }
+
+  /** Resizes the list. New elements are 0. */
+  public void resize(int newsize) {
+    growIfNeeded(newsize);
+    if (newsize > size) {
+      Arrays.fill(a, size, newsize, 0);
+    }
+    size = newsize;
+  }
+
+  /** Gets element i.
+   * @throws IndexOutOfBoundsException if 0 <= i < size does not hold */
+  public int get(int i) {
+    if (i >= size || i < 0) {
+      throw new IndexOutOfBoundsException(i);
+    }
+    return a[i];
+  }
+
+  /** Sets element i to value.
+   * @throws IndexOutOfBoundsException if 0 <= i < size does not hold */
+  public void put(int i, int value) {
+    if (i >= size || i < 0) {
+      throw new IndexOutOfBoundsException(i);
+    }
+    a[i] = value;
+  }
+
+  /** Appends value at the end, increasing size by 1. */
+  public void append(int value) {
+    if (a.length == size) {
+      growIfNeeded(size + 1);
+    }
+    a[size++] = value;
+  }
+
+  /** Appends values[from..from+count-1], in order, growing at most once.
+   * @throws IndexOutOfBoundsException if the range is not in values */
+  public void addAll(int[] values, int from, int count) {
+    if (from < 0 || count < 0 || from > values.length - count) {
+      throw new IndexOutOfBoundsException("range " + from + "+" + count + " of " + values.length);
+    }
+    growIfNeeded(size + count);
+    System.arraycopy(values, from, a, size, count);
+    size += count;
+  }
+
+  /** Appends every element of values, in order, growing at most once. */
+  public void addAll(int[] values) {
+    addAll(values, 0, values.length);
+  }
+
+  /** Removes and returns the last element. Does not change capacity.
+   * @throws NoSuchElementException if size == 0 */
+  public int pop() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    return a[--size];
+  }
+
+  /** Removes every element, keeping the capacity for reuse. */
+  public void clear() {
+    size = 0;
+  }
+
+  /** Shrinks the capacity to the size, giving back the unused space. */
+  public void trimToSize() {
+    if (size < a.length) {
+      a = AList.reallocate(a, size, size, int[]::new);
+    }
+  }
+
+  /** Returns a copy of the elements */
+  public int[] toArray() {
+    return Arrays.copyOf(a, size);
+  }
+}
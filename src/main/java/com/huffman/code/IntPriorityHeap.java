@@ -0,0 +1,219 @@
+package com.huffman.code;
+
+import java.util.NoSuchElementException;
+
+/** An IntPriorityHeap is a min-heap of int values with int priorities,
+ * stored in two parallel int arrays. There are no entry objects, no boxing
+ * and no value-to-index map, so it cannot change a value's priority or
+ * test membership; use Heap when those are needed. Values need not be
+ * distinct.
+ *
+ * The heap is d-ary: each element has up to getArity() children, 2 by
+ * default. A wider heap has fewer levels, and the children of one element
+ * are adjacent in the arrays, so bubbling down scans them in one pass over
+ * a cache line or two. That pays off for large heaps, where bubbling down
+ * dominates.
+ *
+ * Ties are broken as in Heap: bubbling down prefers the last of the
+ * children with the lowest priority. With arity 2 that is the right child,
+ * so the same sequence of adds and polls returns values in the same order
+ * as Heap would. */
+public class IntPriorityHeap {
+
+    /**
+     * priorities[0..size-1] and values[0..size-1] represent a complete d-ary
+     * tree, d = arity: element i has children d*i+1 .. d*i+d, and parent
+     * (i-1)/d.
+     *
+     * Class Invariant: if element i has a parent, the parent's priority is
+     * <= priorities[i].
+     */
+    protected int[] priorities;
+    protected int[] values;
+    protected int size;
+    protected final int arity;
+
+    /** Constructor: an empty binary heap with capacity 16 */
+    public IntPriorityHeap() {
+        this(16);
+    }
+
+    /** Constructor: an empty binary heap with the given capacity */
+    public IntPriorityHeap(int capacity) {
+        this(capacity, 2);
+    }
+
+    /** Constructor: an empty heap with the given capacity in which each
+     * element has up to arity children.
+     * @throws IllegalArgumentException if arity < 2 */
+    public IntPriorityHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity " + arity + " < 2");
+        }
+        this.arity = arity;
+        priorities = new int[Math.max(capacity, 1)];
+        values = new int[priorities.length];
+    }
+
+    /** Constructor: a binary heap of values[i] with priority priorities[i]
+     * for i in 0..n-1, built bottom-up in linear time. The arrays are
+     * copied.
+     * Precondition: 0 <= n <= the length of both arrays */
+    public IntPriorityHeap(int[] values, int[] priorities, int n) {
+        this(n);
+        addAll(values, priorities, n);
+    }
+
+    /** Return the maximum number of children of an element */
+    public int getArity() {
+        return arity;
+    }
+
+    /** Return the number of values in this heap */
+    public int size() {
+        return size;
+    }
+
+    /** Add v with priority p to the heap. Logarithmic time, amortized over
+     * growing the arrays. */
+    public void add(int v, int p) {
+        if (size == priorities.length) {
+            grow(size + 1);
+        }
+        priorities[size] = p;
+        values[size] = v;
+        bubbleUp(size++);
+    }
+
+    /** Add values[i] with priority priorities[i] for i in 0..n-1. If the
+     * batch is at least as large as the heap, the whole heap is rebuilt
+     * bottom-up (Floyd's method) in time linear in its new size, instead
+     * of bubbling up each value.
+     * Precondition: 0 <= n <= the length of both arrays */
+    public void addAll(int[] values, int[] priorities, int n) {
+        if (n < size) {
+            for (int i = 0; i < n; i++) {
+                add(values[i], priorities[i]);
+            }
+            return;
+        }
+        if (size + n > this.priorities.length) {
+            grow(size + n);
+        }
+        System.arraycopy(priorities, 0, this.priorities, size, n);
+        System.arraycopy(values, 0, this.values, size, n);
+        size += n;
+        for (int k = (size - 2) / arity; k >= 0; k--) {
+            bubbleDown(k);
+        }
+    }
+
+    /** Return the value with the lowest priority without removing it.
+     * @throws NoSuchElementException if the heap is empty. */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return values[0];
+    }
+
+    /** Return the lowest priority in the heap.
+     * @throws NoSuchElementException if the heap is empty. */
+    public int peekPriority() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return priorities[0];
+    }
+
+    /** Remove and return the value with the lowest priority.
+     * Logarithmic time.
+     * @throws NoSuchElementException if the heap is empty. */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int first = values[0];
+        size--;
+        if (size > 0) {
+            //Move the last element to the root and bubble it down
+            priorities[0] = priorities[size];
+            values[0] = values[size];
+            bubbleDown(0);
+        }
+        return first;
+    }
+
+    /** Remove and return the value with the lowest priority, and add v with
+     * priority p, bubbling down once instead of bubbling down for the poll
+     * and up for the add. In the Huffman merge loop, poll the first node,
+     * then pollAndAdd the merged node in place of the second.
+     * @throws NoSuchElementException if the heap is empty. */
+    public int pollAndAdd(int v, int p) {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int first = values[0];
+        priorities[0] = p;
+        values[0] = v;
+        bubbleDown(0);
+        return first;
+    }
+
+    /** Grow the arrays to hold at least minCapacity elements, by doubling
+     * like AList. The sift loops index the arrays directly, so the heap
+     * keeps plain arrays and shares only AList's growth. */
+    protected void grow(int minCapacity) {
+        int capacity = AList.grownCapacity(priorities.length, minCapacity);
+        priorities = AList.reallocate(priorities, size, capacity, int[]::new);
+        values = AList.reallocate(values, size, capacity, int[]::new);
+    }
+
+    /** Bubble element k up to its right place. The moving element is held
+     * in locals and written once, instead of swapped at every level. */
+    protected void bubbleUp(int k) {
+        int p = priorities[k];
+        int v = values[k];
+        while (k > 0) {
+            int parent = (k - 1) / arity;
+            if (p >= priorities[parent]) {
+                break;
+            }
+            priorities[k] = priorities[parent];
+            values[k] = values[parent];
+            k = parent;
+        }
+        priorities[k] = p;
+        values[k] = v;
+    }
+
+    /** Bubble element k down to its right place. If several children have
+     * the lowest priority, the last of them is chosen. */
+    protected void bubbleDown(int k) {
+        int[] priorities = this.priorities;
+        int p = priorities[k];
+        int v = values[k];
+        while (true) {
+            int first = arity * k + 1;
+            if (first >= size) {
+                break;
+            }
+            //Scan the adjacent children once for the lowest priority
+            int child = first;
+            int last = Math.min(first + arity, size);
+            for (int j = first + 1; j < last; j++) {
+                if (priorities[j] <= priorities[child]) {
+                    child = j;
+                }
+            }
+            if (p <= priorities[child]) {
+                break;
+            }
+            priorities[k] = priorities[child];
+            values[k] = values[child];
+            k = child;
+        }
+        priorities[k] = p;
+        values[k] = v;
+    }
+}
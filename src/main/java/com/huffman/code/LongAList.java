@@ -0,0 +1,123 @@
+package com.huffman.code;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/*
+ * Purpose: An AList of long elements, stored in a long[] without boxing.
+ * It grows and shrinks exactly like AList.
+ */
+
+public class LongAList {
+  protected int size; // number of elements in the list
+  protected long[] a; // the backing array storage
+
+  public int size() {
+    return size;
+  }
+
+  protected int getCap() {
+    return a.length;
+  }
+
+  /** Creates a LongAList with a default capacity of 8 */
+  public LongAList() {
+    this(8);
+  }
+
+  /** Creates a LongAList with the given capacity */
+  public LongAList(int capacity) {
+    a = new long[capacity];
+  }
+
+  /** Grows a, if needed, to hold newSize elements; see AList.growIfNeeded.
+   * This does *not* change the size. */
+  protected void growIfNeeded(int newSize) {
+    if (newSize > a.length) {
+      a = AList.reallocate(a, size, AList.grownCapacity(a.length, newSize), long[]::new);
+    }
+  }
+
+  /** Grows the capacity, if needed, to hold at least minCapacity elements
+   * without further allocation. Does not change the size. */
+  public void ensureCapacity(int minCapacity) {
+    growIfNeeded(minCapacity);
+  }
+
+  /** Resizes the list. New elements are 0. */
+  public void resize(int newsize) {
+    growIfNeeded(newsize);
+    if (newsize > size) {
+      Arrays.fill(a, size, newsize, 0);
+    }
+    size = newsize;
+  }
+
+  /** Gets element i.
+   * @throws IndexOutOfBoundsException if 0 <= i < size does not hold */
+  public long get(int i) {
+    if (i >= size || i < 0) {
+      throw new IndexOutOfBoundsException(i);
+    }
+    return a[i];
+  }
+
+  /** Sets element i to value.
+   * @throws IndexOutOfBoundsException if 0 <= i < size does not hold */
+  public void put(int i, long value) {
+    if (i >= size || i < 0) {
+      throw new IndexOutOfBoundsException(i);
+    }
+    a[i] = value;
+  }
+
+  /** Appends value at the end, increasing size by 1. */
+  public void append(long value) {
+    if (a.length == size) {
+      growIfNeeded(size + 1);
+    }
+    a[size++] = value;
+  }
+
+  /** Appends values[from..from+count-1], in order, growing at most once.
+   * @throws IndexOutOfBoundsException if the range is not in values */
+  public void addAll(long[] values, int from, int count) {
+    if (from < 0 || count < 0 || from > values.length - count) {
+      throw new IndexOutOfBoundsException("range " + from + "+" + count + " of " + values.length);
+    }
+    growIfNeeded(size + count);
+    System.arraycopy(values, from, a, size, count);
+    size += count;
+  }
+
+  /** Appends every element of values, in order, growing at most once. */
+  public void addAll(long[] values) {
+    addAll(values, 0, values.length);
+  }
+
+  /** Removes and returns the last element. Does not change capacity.
+   * @throws NoSuchElementException if size == 0 */
+  public long pop() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    return a[--size];
+  }
+
+  /** Removes every element, keeping the capacity for reuse. */
+  public void clear() {
+    size = 0;
+  }
+
+  /** Shrinks the capacity to the size, giving back the unused space. */
+  public void trimToSize() {
+    if (size < a.length) {
+      a = AList.reallocate(a, size, size, long[]::new);
+    }
+  }
+
+  /** Returns a copy of the elements */
+  public long[] toArray() {
+    return Arrays.copyOf(a, size);
+  }
+}
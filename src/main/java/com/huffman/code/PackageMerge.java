@@ -0,0 +1,87 @@
+package com.huffman.code;
+
+/** PackageMerge finds optimal length-limited prefix codes with the
+ * package-merge algorithm. Plain Huffman trees can be as deep as the
+ * alphabet is large on skewed input; capping code lengths keeps decode
+ * tables small and bounds the work per symbol, at a small cost in
+ * compression.
+ *
+ * The algorithm works on lists of items sorted by weight. The first list
+ * is the leaves. Each following list merges the leaves with "packages"
+ * made by pairing adjacent items of the previous list. Taking the 2n-2
+ * lightest items of the maxLength-th list gives the optimal lengths: every
+ * leaf counted in a taken item, directly or inside packages, gets one more
+ * bit. Time and space are O(n * maxLength). */
+public class PackageMerge {
+
+    private PackageMerge() {
+    }
+
+    /** Return the code length of each symbol of an optimal prefix code for
+     * freqs in which no code is longer than maxLength, indexed by symbol up
+     * to freqs.alphabetSize(). A single symbol gets length 1.
+     * @throws IllegalArgumentException if freqs is empty, or it has more
+     * than 2^maxLength symbols */
+    public static int[] codeLengths(FrequencyTable freqs, int maxLength) {
+        int[] symbols = TwoQueueBuilder.sortedSymbols(freqs);
+        int n = symbols.length;
+        if (maxLength < 1 || (maxLength < 31 && n > (1 << maxLength))) {
+            throw new IllegalArgumentException(n + " symbols do not fit in " + maxLength + "-bit codes");
+        }
+        int[] lengths = new int[freqs.alphabetSize()];
+        if (n == 1) {
+            lengths[symbols[0]] = 1;
+            return lengths;
+        }
+        long[] leaves = TwoQueueBuilder.weights(freqs, symbols);
+
+        //isPackage[level][i] says whether item i of that level's list is a
+        //package; leaves in a list always appear in sorted order
+        boolean[][] isPackage = new boolean[maxLength][];
+        isPackage[0] = new boolean[n];
+        long[] list = leaves;
+        for (int level = 1; level < maxLength; level++) {
+            int packages = list.length / 2;
+            long[] merged = new long[n + packages];
+            boolean[] flags = new boolean[merged.length];
+            int leaf = 0;
+            int pkg = 0;
+            for (int i = 0; i < merged.length; i++) {
+                long packageWeight = pkg < packages ? list[2 * pkg] + list[2 * pkg + 1] : Long.MAX_VALUE;
+                if (leaf < n && leaves[leaf] <= packageWeight) {
+                    merged[i] = leaves[leaf++];
+                } else {
+                    merged[i] = packageWeight;
+                    flags[i] = true;
+                    pkg++;
+                }
+            }
+            isPackage[level] = flags;
+            list = merged;
+        }
+
+        //Take the 2n-2 lightest items of the last list, and follow the
+        //packages taken back down through the earlier lists
+        int take = 2 * n - 2;
+        int[] leafCount = new int[n + 1]; // leafCount[i]: bits added to leaves 0..i-1
+        for (int level = maxLength - 1; level >= 0 && take > 0; level--) {
+            int leavesTaken = 0;
+            for (int i = 0; i < take; i++) {
+                if (!isPackage[level][i]) {
+                    leavesTaken++;
+                }
+            }
+            leafCount[leavesTaken]++;
+            take = 2 * (take - leavesTaken);
+        }
+
+        //A leaf gains a bit at every level that took at least its rank of
+        //leaves, so sum the counts from the heaviest leaf down
+        int bits = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            bits += leafCount[i + 1];
+            lengths[symbols[i]] = bits;
+        }
+        return lengths;
+    }
+}
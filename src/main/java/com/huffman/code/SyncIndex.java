@@ -0,0 +1,105 @@
+package com.huffman.code;
+
+import java.nio.ByteBuffer;
+
+/** A SyncIndex records where decoding can start in the middle of encoded
+ * data: checkpoint i is the bit offset of symbol i * getInterval(). Codes
+ * are not byte aligned, so without it every decode has to start at bit 0;
+ * with it, a range of symbols costs at most getInterval() - 1 extra symbol
+ * decodes.
+ *
+ * Indexes are made by the encode methods of HuffmanCodec and
+ * HuffmanByteCodec that take an interval, and can be stored next to the
+ * data with write and read. */
+public final class SyncIndex {
+
+    private final int interval;
+    private final int symbolCount;
+    private final long[] bitOffsets;
+
+    /** An index of the checkpoints in bitOffsets, one every interval
+     * symbols of symbolCount. bitOffsets is not copied. */
+    SyncIndex(int interval, int symbolCount, long[] bitOffsets) {
+        this.interval = interval;
+        this.symbolCount = symbolCount;
+        this.bitOffsets = bitOffsets;
+    }
+
+    /** Return the number of symbols between checkpoints */
+    public int getInterval() {
+        return interval;
+    }
+
+    /** Return the number of symbols in the indexed data */
+    public int getSymbolCount() {
+        return symbolCount;
+    }
+
+    /** Return the number of checkpoints */
+    public int getCheckpointCount() {
+        return bitOffsets.length;
+    }
+
+    /** Return the bit offset of symbol checkpoint * getInterval()
+     * @throws IndexOutOfBoundsException if there is no such checkpoint */
+    public long getBitOffset(int checkpoint) {
+        return bitOffsets[checkpoint];
+    }
+
+    /** Write the index to out as varints: the interval, the symbol count,
+     * then the gap between each checkpoint and the one before it */
+    public void write(BitWriter out) {
+        out.writeVarLong(interval);
+        out.writeVarLong(symbolCount);
+        long previous = 0;
+        for (long offset : bitOffsets) {
+            out.writeVarLong(offset - previous);
+            previous = offset;
+        }
+    }
+
+    /** Read an index written by write
+     * @throws IllegalArgumentException if the index is malformed */
+    public static SyncIndex read(BitReader in) {
+        int interval = Math.toIntExact(in.readVarLong());
+        int symbolCount = Math.toIntExact(in.readVarLong());
+        if (interval <= 0 || symbolCount < 0) {
+            throw new IllegalArgumentException("malformed sync index");
+        }
+        long[] bitOffsets = new long[checkpoints(symbolCount, interval)];
+        long previous = 0;
+        for (int i = 0; i < bitOffsets.length; i++) {
+            previous += in.readVarLong();
+            bitOffsets[i] = previous;
+        }
+        return new SyncIndex(interval, symbolCount, bitOffsets);
+    }
+
+    /** Return the number of checkpoints for symbolCount symbols */
+    static int checkpoints(int symbolCount, int interval) {
+        return (symbolCount + interval - 1) / interval;
+    }
+
+    /** Check that from..to is a range of indexed symbols, and that data
+     * is long enough to hold them all
+     * @throws IndexOutOfBoundsException if it is not */
+    void checkRange(EncodedData data, int from, int to) {
+        if (from < 0 || to > symbolCount || from > to) {
+            throw new IndexOutOfBoundsException("range " + from + ".." + to + " of " + symbolCount);
+        }
+        if (bitOffsets.length > 0 && bitOffsets[bitOffsets.length - 1] > data.getBitLength()) {
+            throw new IndexOutOfBoundsException("index is longer than data");
+        }
+    }
+
+    /** Return a reader over data positioned at the checkpoint at or before
+     * symbol s. Precondition: 0 <= s < getSymbolCount() */
+    BitReader readerAt(EncodedData data, int s) {
+        long bit = bitOffsets[s / interval];
+        int skip = (int) (bit & 7);
+        ByteBuffer buf = ByteBuffer.wrap(data.getBytes()).position((int) (bit >>> 3));
+        BitReader in = new BitReader(buf, data.getBitLength() - bit + skip);
+        in.readBits(skip);
+        return in;
+    }
+}
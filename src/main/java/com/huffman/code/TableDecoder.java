@@ -0,0 +1,175 @@
+package com.huffman.code;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/** A TableDecoder decodes a prefix code by table lookup instead of walking
+ * the tree one bit at a time. It peeks tableBits bits, and the primary
+ * table entry for those bits gives the decoded symbol and the length of its
+ * code. Codes longer than tableBits share a primary entry that points to a
+ * secondary table, indexed by the bits that follow. A secondary table is
+ * at most MAX_SUB_BITS wide; codes longer still link on to further tables,
+ * so every code up to CanonicalCode.MAX_CODE_LENGTH bits can be decoded
+ * without any one table growing past 2^MAX_SUB_BITS entries.
+ *
+ * All tables live in one int array, the primary table first. Each entry is
+ * an int packed as (payload << 8) | flags:
+ *   - a symbol entry has payload = symbol and flags = the number of code
+ *     bits left to consume at this table (1-127)
+ *   - a link entry has payload = offset of the next table and
+ *     flags = SUBTABLE | width of the next table
+ *   - 0 marks bits that start no code */
+public class TableDecoder {
+
+    /** The default number of bits looked up in the primary table */
+    public static final int DEFAULT_TABLE_BITS = 10;
+
+    /** The widest secondary table */
+    static final int MAX_SUB_BITS = 12;
+
+    private static final int SUBTABLE = 0x80;
+    private static final int LENGTH_MASK = 0x7F;
+
+    //Table offsets are packed above 8 flag bits
+    private static final int MAX_TABLE_SIZE = 1 << 23;
+
+    private final int primaryBits;
+    private final int[] table;
+
+    /** A TableDecoder for the code where symbol s has codes[s] of
+     * lengths[s] bits, using the default primary table width. Symbols with
+     * length 0 are not in the code. */
+    public TableDecoder(long[] codes, byte[] lengths) {
+        this(codes, lengths, DEFAULT_TABLE_BITS);
+    }
+
+    /** A TableDecoder for the code where symbol s has codes[s] of
+     * lengths[s] bits, with a primary table indexed by at most tableBits
+     * bits.
+     * @throws IllegalArgumentException if tableBits is not in 1..24, a
+     * code is longer than CanonicalCode.MAX_CODE_LENGTH bits, or the
+     * tables would exceed 2^23 entries */
+    public TableDecoder(long[] codes, byte[] lengths, int tableBits) {
+        if (tableBits < 1 || tableBits > 24) {
+            throw new IllegalArgumentException("bad table width " + tableBits);
+        }
+        int maxLength = 0;
+        int count = 0;
+        for (int len : lengths) {
+            if (len < 0 || len > CanonicalCode.MAX_CODE_LENGTH) {
+                throw new IllegalArgumentException("bad code length " + len);
+            }
+            maxLength = Math.max(maxLength, len);
+            count += len != 0 ? 1 : 0;
+        }
+        int[] symbols = new int[count];
+        for (int s = 0, i = 0; s < lengths.length; s++) {
+            if (lengths[s] != 0) {
+                symbols[i++] = s;
+            }
+        }
+
+        primaryBits = Math.max(1, Math.min(tableBits, maxLength));
+        IntAList tables = new IntAList(1 << primaryBits);
+        tables.resize(1 << primaryBits);
+        fillTable(tables, 0, primaryBits, 0, symbols, codes, lengths);
+        table = tables.toArray();
+    }
+
+    /* Fill the table of 2^width entries at tables[base..] with symbols,
+     * whose codes have consumed bits already decoded by earlier tables.
+     * Codes that do not fit get secondary tables, appended to tables. */
+    private static void fillTable(IntAList tables, int base, int width, int consumed,
+                                  int[] symbols, long[] codes, byte[] lengths) {
+        int size = 1 << width;
+        //starts[p+1] counts the long codes under prefix p, then becomes
+        //the start of their bucket; subBits[p] is their table's width
+        int[] starts = new int[size + 1];
+        int[] subBits = new int[size];
+        for (int s : symbols) {
+            int rest = lengths[s] - consumed;
+            long bits = codes[s] & BitWriter.mask(rest);
+            if (rest <= width) {
+                int first = (int) (bits << (width - rest));
+                for (int i = first; i < first + (1 << (width - rest)); i++) {
+                    tables.put(base + i, (s << 8) | rest);
+                }
+            } else {
+                int prefix = (int) (bits >>> (rest - width));
+                starts[prefix + 1]++;
+                subBits[prefix] = Math.max(subBits[prefix], Math.min(rest - width, MAX_SUB_BITS));
+            }
+        }
+
+        //Bucket the long codes by prefix
+        for (int p = 0; p < size; p++) {
+            starts[p + 1] += starts[p];
+        }
+        if (starts[size] == 0) {
+            return;
+        }
+        int[] next = Arrays.copyOf(starts, size);
+        int[] sorted = new int[starts[size]];
+        for (int s : symbols) {
+            int rest = lengths[s] - consumed;
+            if (rest > width) {
+                sorted[next[(int) ((codes[s] & BitWriter.mask(rest)) >>> (rest - width))]++] = s;
+            }
+        }
+
+        for (int p = 0; p < size; p++) {
+            if (subBits[p] == 0) {
+                continue;
+            }
+            int sub = tables.size();
+            if (sub + (1 << subBits[p]) > MAX_TABLE_SIZE) {
+                throw new IllegalArgumentException("code too large for decode tables");
+            }
+            tables.resize(sub + (1 << subBits[p]));
+            tables.put(base + p, (sub << 8) | SUBTABLE | subBits[p]);
+            fillTable(tables, sub, subBits[p], consumed + width,
+                    Arrays.copyOfRange(sorted, starts[p], starts[p + 1]), codes, lengths);
+        }
+    }
+
+    /** Decode and consume one symbol from in.
+     * @throws IllegalStateException if the next bits start no code */
+    public int decodeSymbol(BitReader in) {
+        int width = primaryBits;
+        int e = table[in.peekBits(width)];
+        while ((e & SUBTABLE) != 0) {
+            in.skipBits(width);
+            width = e & LENGTH_MASK;
+            e = table[(e >>> 8) + in.peekBits(width)];
+        }
+        int len = e & LENGTH_MASK;
+        if (len == 0) {
+            throw new IllegalStateException("invalid code in input");
+        }
+        in.skipBits(len);
+        return e >>> 8;
+    }
+
+    /** Decode every symbol in data as a char and return them as a String
+     * @throws IllegalStateException if data ends inside a code */
+    public String decodeString(EncodedData data) {
+        BitReader in = new BitReader(data);
+        StringBuilder sb = new StringBuilder();
+        while (in.bitsRemaining() > 0) {
+            sb.append((char) decodeSymbol(in));
+        }
+        if (in.isOverrun() || in.bitsRemaining() < 0) {
+            throw new IllegalStateException("truncated code in input");
+        }
+        return sb.toString();
+    }
+
+    /** Decode symbols from in as bytes into dst until dst has no space
+     * remaining, advancing dst's position */
+    public void decodeBytes(BitReader in, ByteBuffer dst) {
+        for (int x = dst.position(); x < dst.limit(); x++) {
+            dst.put(x, (byte) decodeSymbol(in));
+        }
+        dst.position(dst.limit());
+    }
+}
@@ -0,0 +1,128 @@
+package com.huffman.code;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/** TwoQueueBuilder builds Huffman trees in linear time after one sort. The
+ * leaves are sorted by frequency once; merged nodes are created in
+ * non-decreasing order of frequency, so they form a second sorted queue.
+ * The two smallest nodes are then always at the front of the two queues,
+ * and each merge is O(1) instead of two heap polls and an add.
+ *
+ * Nodes are numbered in the order they enter the queues: leaves 0..n-1 in
+ * sorted order, then merged nodes n..2n-2, the last being the root. On
+ * equal frequencies a leaf is taken before a merged node, which keeps the
+ * tree as shallow as possible. */
+public class TwoQueueBuilder {
+
+    private TwoQueueBuilder() {
+    }
+
+    /** Return the code length of each symbol of an optimal prefix code for
+     * freqs, indexed by symbol up to freqs.alphabetSize(). A single symbol
+     * gets length 1.
+     * @throws IllegalArgumentException if freqs is empty */
+    public static int[] codeLengths(FrequencyTable freqs) {
+        int[] symbols = sortedSymbols(freqs);
+        int n = symbols.length;
+        int[] children = merge(weights(freqs, symbols));
+
+        //Children are numbered below their parent, so walking merged nodes
+        //from the root down sets every node's depth after its parent's
+        int[] depth = new int[2 * n - 1];
+        for (int z = 2 * n - 2; z >= n; z--) {
+            depth[children[2 * (z - n)]] = depth[z] + 1;
+            depth[children[2 * (z - n) + 1]] = depth[z] + 1;
+        }
+        int[] lengths = new int[freqs.alphabetSize()];
+        for (int i = 0; i < n; i++) {
+            lengths[symbols[i]] = n == 1 ? 1 : depth[i];
+        }
+        return lengths;
+    }
+
+    /** Return the Huffman tree for freqs as a FlatHuffmanTree. The merge
+     * already numbers nodes in arrays, so this only renumbers the
+     * children.
+     * @throws IllegalArgumentException if freqs is empty */
+    public static FlatHuffmanTree buildFlatTree(FrequencyTable freqs) {
+        int[] symbols = sortedSymbols(freqs);
+        int n = symbols.length;
+        if (n == 1) {
+            return new FlatHuffmanTree(new int[0], ~symbols[0]);
+        }
+        //Leaf i becomes ~symbols[i]; merged node n+k becomes internal node k
+        int[] children = merge(weights(freqs, symbols));
+        for (int i = 0; i < children.length; i++) {
+            int c = children[i];
+            children[i] = c < n ? ~symbols[c] : c - n;
+        }
+        return new FlatHuffmanTree(children, n - 2);
+    }
+
+    /** Merge n leaves with sorted weights into a Huffman tree. Return the
+     * children of the merged nodes: node n+k has children children[2k]
+     * (the smaller) and children[2k+1]. */
+    static int[] merge(long[] weights) {
+        int n = weights.length;
+        int[] children = new int[2 * Math.max(n - 1, 0)];
+        long[] merged = new long[Math.max(n - 1, 0)]; // weights of merged nodes
+        int leaf = 0; // front of the leaf queue
+        int front = 0; // front of the merged queue, as an offset from n
+        for (int k = 0; k < n - 1; k++) {
+            for (int c = 0; c < 2; c++) {
+                //Take the lighter front node, preferring the leaf on ties
+                if (leaf < n && (front == k || weights[leaf] <= merged[front])) {
+                    merged[k] += weights[leaf];
+                    children[2 * k + c] = leaf++;
+                } else {
+                    merged[k] += merged[front];
+                    children[2 * k + c] = n + front++;
+                }
+            }
+        }
+        return children;
+    }
+
+    /** Return the symbols of freqs sorted by increasing frequency, ties in
+     * increasing symbol order.
+     * @throws IllegalArgumentException if freqs is empty */
+    static int[] sortedSymbols(FrequencyTable freqs) {
+        int[] symbols = freqs.symbols();
+        if (symbols.length == 0) {
+            throw new IllegalArgumentException("no symbol frequencies");
+        }
+        //Sort (frequency, position) pairs packed into longs when they fit,
+        //so the sort is a primitive one
+        int positionBits = 32 - Integer.numberOfLeadingZeros(symbols.length);
+        long maxFreq = 0;
+        for (int s : symbols) {
+            maxFreq = Math.max(maxFreq, freqs.get(s));
+        }
+        if (maxFreq < (1L << (63 - positionBits))) {
+            long[] keys = new long[symbols.length];
+            for (int i = 0; i < symbols.length; i++) {
+                keys[i] = (freqs.get(symbols[i]) << positionBits) | i;
+            }
+            Arrays.sort(keys);
+            int[] sorted = new int[symbols.length];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = symbols[(int) (keys[i] & ((1L << positionBits) - 1))];
+            }
+            return sorted;
+        }
+        //The sort is stable and symbols are in increasing order already
+        return Arrays.stream(symbols).boxed()
+                .sorted(Comparator.comparingLong(freqs::get))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    /** Return the frequencies of symbols, in the same order */
+    static long[] weights(FrequencyTable freqs, int[] symbols) {
+        long[] weights = new long[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            weights[i] = freqs.get(symbols[i]);
+        }
+        return weights;
+    }
+}
@@ -2,6 +2,7 @@ package com.huffman.code;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
+import java.util.List;
 import java.util.NoSuchElementException;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -139,4 +140,101 @@ class AListTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    /** Test bulk appends grow once, to the smallest doubling that fits */
+    public void test40AddAll() {
+        AList<Integer> al = new AList<Integer>(4);
+        al.addAll(new Integer[] {0, 1, 2});
+        al.addAll(List.of(3, 4, 5, 6, 7, 8));
+        assertEquals(9, al.size());
+        assertEquals(16, al.getCap());
+
+        AList<Integer> other = new AList<Integer>(0);
+        other.addAll(al);
+        assertEquals(9, other.size());
+        for (int i = 0; i < 9; i++) {
+            assertEquals(Integer.valueOf(i), other.get(i));
+        }
+
+        other.ensureCapacity(100);
+        assertEquals(128, other.getCap());
+        assertEquals(9, other.size());
+        other.append(9);
+        assertEquals(Integer.valueOf(9), other.get(9));
+    }
+
+    @Test
+    /** Test clear keeps the capacity and trimToSize gives it back */
+    public void test50ClearTrim() {
+        AList<Integer> al = new AList<Integer>(8);
+        for (int i = 0; i < 20; i++) {
+            al.append(i);
+        }
+        al.trimToSize();
+        assertEquals(20, al.getCap());
+        al.append(20);
+        assertEquals(40, al.getCap());
+
+        al.clear();
+        assertEquals(0, al.size());
+        assertEquals(40, al.getCap());
+        assertThrows(IndexOutOfBoundsException.class, () -> al.get(0));
+
+        al.trimToSize();
+        assertEquals(0, al.getCap());
+        al.append(1);
+        assertEquals(1, al.getCap());
+        assertEquals(Integer.valueOf(1), al.pop());
+    }
+
+    @Test
+    /** Test IntAList: growth, bulk appends, pop, clear and trim */
+    public void test60IntAList() {
+        IntAList ints = new IntAList(2);
+        for (int i = 0; i < 10; i++) {
+            ints.append(i);
+        }
+        assertEquals(10, ints.size());
+        assertEquals(16, ints.getCap());
+        assertEquals(9, ints.pop());
+        ints.addAll(new int[] {7, 8, 9, 10}, 1, 2);
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 8, 9}, ints.toArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.addAll(new int[2], 1, 2));
+
+        ints.resize(12);
+        assertEquals(0, ints.get(11));
+        ints.put(11, -1);
+        assertEquals(-1, ints.get(11));
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.get(12));
+        ints.clear();
+        assertEquals(16, ints.getCap());
+        ints.trimToSize();
+        assertEquals(0, ints.getCap());
+        assertArrayEquals(new int[0], ints.toArray());
+        assertThrows(NoSuchElementException.class, ints::pop);
+    }
+
+    @Test
+    /** Test LongAList keeps values that do not fit in an int */
+    public void test61LongAList() {
+        LongAList longs = new LongAList(2);
+        for (int i = 0; i < 10; i++) {
+            longs.append(1L << (i * 6));
+        }
+        assertEquals(16, longs.getCap());
+        assertEquals(1L << 54, longs.pop());
+        longs.addAll(new long[] {Long.MIN_VALUE, Long.MAX_VALUE});
+        assertEquals(11, longs.size());
+        assertEquals(Long.MAX_VALUE, longs.get(10));
+
+        longs.resize(12);
+        assertEquals(0L, longs.get(11));
+        longs.put(11, -1L);
+        assertEquals(-1L, longs.get(11));
+        longs.clear();
+        assertEquals(16, longs.getCap());
+        longs.trimToSize();
+        assertArrayEquals(new long[0], longs.toArray());
+        assertThrows(NoSuchElementException.class, longs::pop);
+    }
+}
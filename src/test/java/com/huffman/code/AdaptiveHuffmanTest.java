@@ -0,0 +1,61 @@
+package com.huffman.code;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveHuffmanTest {
+
+    @Test
+    //Test short strings round trip, and a truncated stream fails
+    public void test01RoundTrip() {
+        assertEquals("", AdaptiveHuffman.decode(AdaptiveHuffman.encode("")));
+        assertEquals("a", AdaptiveHuffman.decode(AdaptiveHuffman.encode("a")));
+        String s = "pipppperrr pippppar piippppeer";
+        EncodedData data = AdaptiveHuffman.encode(s);
+        assertEquals(s, AdaptiveHuffman.decode(data));
+        //A repeated char after the first costs one bit
+        assertEquals(16 + 3, AdaptiveHuffman.encode("aaaa").getBitLength());
+
+        //A stream cut inside the literal of a new char fails
+        EncodedData full = AdaptiveHuffman.encode("aaaab");
+        EncodedData cut = new EncodedData(full.getBytes(), full.getBitLength() - 1);
+        assertThrows(IllegalStateException.class, () -> AdaptiveHuffman.decode(cut));
+    }
+
+    @Test
+    //Test a large text comes close to the static code without a header
+    public void test02CloseToStatic() throws IOException {
+        String text = TestFiles.readString("/GreatExpectations.txt");
+        EncodedData adaptive = AdaptiveHuffman.encode(text);
+        EncodedData fixed = new HuffmanService().encodeBits(text);
+        assertEquals(text, AdaptiveHuffman.decode(adaptive));
+        assertTrue(adaptive.getBitLength() < fixed.getBitLength() * 1.01);
+    }
+
+    @Test
+    //Test a byte model keeps encoder and decoder in step on skewed data
+    public void test03Bytes() {
+        Random random = new Random(17);
+        int[] symbols = new int[100000];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = Math.min(255, (int) (-Math.log(random.nextDouble()) * 20));
+        }
+        AdaptiveHuffman encoder = new AdaptiveHuffman(8);
+        BitWriter out = new BitWriter();
+        for (int s : symbols) {
+            encoder.encode(s, out);
+        }
+        AdaptiveHuffman decoder = new AdaptiveHuffman(8);
+        BitReader in = new BitReader(out.toEncodedData());
+        for (int s : symbols) {
+            assertEquals(s, decoder.decode(in));
+        }
+        assertEquals(0, in.bitsRemaining());
+        assertEquals(encoder.size(), decoder.size());
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(256, out));
+    }
+}
@@ -0,0 +1,104 @@
+package com.huffman.code;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockCompressorTest {
+
+    @Test
+    //Test parallel block round trip and decoding single blocks out of order
+    public void test01RoundTrip() throws IOException {
+        byte[] data = TestFiles.readBytes("/GreatExpectations.txt");
+        int blockSize = 100000;
+        try (TestFiles files = new TestFiles()) {
+            Path in = files.newFile(".txt", data);
+            Path compressed = files.newFile(".hub");
+            Path out = files.newFile(".out");
+            long size = BlockCompressor.compress(in, compressed, blockSize);
+            assertTrue(size < data.length * 0.6);
+
+            try (BlockReader reader = new BlockReader(compressed)) {
+                assertEquals(11, reader.getBlockCount());
+                assertEquals(data.length, reader.getLength());
+
+                int last = reader.getBlockCount() - 1;
+                assertArrayEquals(Arrays.copyOfRange(data, last * blockSize, data.length),
+                        reader.decodeBlock(last));
+                assertArrayEquals(Arrays.copyOfRange(data, 3 * blockSize, 4 * blockSize),
+                        reader.decodeBlock(3));
+
+                reader.decompress(out);
+                assertArrayEquals(data, Files.readAllBytes(out));
+            }
+        }
+    }
+
+    @Test
+    //Test an empty file has no blocks
+    public void test02Empty() throws IOException {
+        try (TestFiles files = new TestFiles()) {
+            Path in = files.newFile(".txt");
+            Path compressed = files.newFile(".hub");
+            BlockCompressor.compress(in, compressed);
+            try (BlockReader reader = new BlockReader(compressed)) {
+                assertEquals(0, reader.getBlockCount());
+                assertEquals(0, reader.getLength());
+            }
+        }
+    }
+
+    @Test
+    //Test a flipped bit is found by verify without decoding, and by decodeBlock
+    public void test03Checksums() throws IOException {
+        byte[] data = TestFiles.readBytes("/GreatExpectations.txt");
+        try (TestFiles files = new TestFiles()) {
+            Path in = files.newFile(".txt", data);
+            Path compressed = files.newFile(".hub");
+            BlockCompressor.compress(in, compressed, 100000);
+            long target;
+            try (BlockReader reader = new BlockReader(compressed)) {
+                reader.verify();
+                assertTrue(reader.getBlockCount() > 2);
+                //A byte in the middle of the compressed blocks
+                target = Files.size(compressed) / 2;
+            }
+            try (RandomAccessFile file = new RandomAccessFile(compressed.toFile(), "rw")) {
+                file.seek(target);
+                int b = file.read();
+                file.seek(target);
+                file.write(b ^ 0x10);
+            }
+            try (BlockReader reader = new BlockReader(compressed)) {
+                IOException e = assertThrows(IOException.class, reader::verify);
+                assertTrue(e.getMessage().contains("checksum"));
+
+                //Exactly one block is damaged, and only it fails to decode
+                int damaged = 0;
+                for (int b = 0; b < reader.getBlockCount(); b++) {
+                    try {
+                        reader.decodeBlock(b);
+                    } catch (IOException blockError) {
+                        assertTrue(blockError.getMessage().contains("checksum"));
+                        damaged++;
+                    }
+                }
+                assertEquals(1, damaged);
+                Path out = files.newFile(".out");
+                assertThrows(IOException.class, () -> reader.decompress(out));
+            }
+
+            //A damaged magic number is rejected on open
+            try (RandomAccessFile file = new RandomAccessFile(compressed.toFile(), "rw")) {
+                file.write('X');
+            }
+            assertThrows(IOException.class, () -> new BlockReader(compressed));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.huffman.code;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlatHuffmanTreeTest {
+
+    @Test
+    //Test the service's heap-built tree decodes what the service encoded
+    public void test01HeapBuilt() throws IOException {
+        String text = TestFiles.readString("/GreatExpectations.txt");
+        HuffmanService hs = new HuffmanService();
+        EncodedData data = hs.encodeBits(text);
+        assertTrue(hs.frequencyCount.size() < HuffmanService.TWO_QUEUE_MIN_SYMBOLS);
+        FlatHuffmanTree tree = hs.huffTree;
+        assertEquals(hs.frequencyCount.size() - 1, tree.getInternalNodeCount());
+        assertEquals(text, tree.decodeString(data));
+        assertEquals(text, tree.decodeBitString(data.toBitString()));
+    }
+
+    @Test
+    //Test the builder's flat tree decodes what the service encoded, on a
+    //large alphabet the service builds with TwoQueueBuilder
+    public void test02FromFrequencies() {
+        Random random = new Random(25);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200000; i++) {
+            sb.append((char) Math.min(5000, (int) (-Math.log(random.nextDouble()) * 300)));
+        }
+        String text = sb.toString();
+        HuffmanService hs = new HuffmanService();
+        EncodedData data = hs.encodeBits(text);
+        assertTrue(hs.frequencyCount.size() >= HuffmanService.TWO_QUEUE_MIN_SYMBOLS);
+
+        FlatHuffmanTree tree = FlatHuffmanTree.fromFrequencies(hs.frequencyCount);
+        assertEquals(text, tree.decodeString(data));
+    }
+
+    @Test
+    //Test a single-leaf tree, and a chain deeper than 32 levels with a
+    //truncated last code
+    public void test03Shapes() {
+        HuffmanService hs = new HuffmanService();
+        EncodedData data = hs.encodeBits("zzzz");
+        FlatHuffmanTree leaf = FlatHuffmanTree.fromFrequencies(hs.frequencyCount);
+        assertEquals(0, leaf.getInternalNodeCount());
+        assertEquals("zzzz", leaf.decodeString(data));
+        assertEquals("0000", hs.encode("zzzz"));
+        assertEquals("zzzz", hs.decode());
+
+        HuffmanService deep = new HuffmanService();
+        deep.huffTree = HuffmanServiceTest.chain(60);
+        deep.frequencyCount.increment(60);
+        deep.buildEncoder();
+        BitWriter writer = new BitWriter();
+        deep.encodingMap.encode("\u0000<!", writer);
+        EncodedData encoded = writer.toEncodedData();
+        assertEquals("\u0000<!", deep.decode(encoded));
+        EncodedData truncated = new EncodedData(encoded.getBytes(), encoded.getBitLength() - 1);
+        assertThrows(IllegalStateException.class, () -> deep.decode(truncated));
+    }
+}
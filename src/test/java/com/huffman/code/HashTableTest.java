@@ -0,0 +1,60 @@
+package com.huffman.code;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashTableTest {
+
+    @Test
+    //Test power-of-two capacity and growth at the load factor
+    public void test00Capacity() {
+        assertEquals(16, new HashTable<String, Integer>().getCapacity());
+        assertEquals(32, new HashTable<String, Integer>(17).getCapacity());
+        HashTable<Integer, Integer> table = new HashTable<>(8, 0.5);
+        for (int i = 0; i < 4; i++) {
+            table.put(i, i);
+        }
+        assertEquals(8, table.getCapacity());
+        table.put(4, 4);
+        assertEquals(16, table.getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new HashTable<String, Integer>(8, 1.0));
+    }
+
+    @Test
+    //Test hashes that are negative or Integer.MIN_VALUE
+    public void test01ExtremeHashes() {
+        HashTable<Integer, String> table = new HashTable<>();
+        table.put(Integer.MIN_VALUE, "min");
+        table.put(-1, "minus one");
+        assertEquals("min", table.get(Integer.MIN_VALUE));
+        assertEquals("minus one", table.remove(-1));
+        assertFalse(table.containsKey(-1));
+        assertEquals(1, table.getSize());
+    }
+
+    @Test
+    //Test random puts and removes against HashMap, so removals shift
+    //colliding runs back correctly
+    public void test02MatchesHashMap() {
+        Random random = new Random(21);
+        HashTable<Integer, Integer> table = new HashTable<>(4);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for (int op = 0; op < 200000; op++) {
+            //A small key range forces long probe runs and many removals
+            int key = random.nextInt(2000) * 1024;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), table.remove(key));
+            } else {
+                assertEquals(expected.put(key, op), table.put(key, op));
+            }
+        }
+        assertEquals(expected.size(), table.getSize());
+        for (int key = 0; key < 2000 * 1024; key += 1024) {
+            assertEquals(expected.get(key), table.get(key));
+        }
+    }
+}
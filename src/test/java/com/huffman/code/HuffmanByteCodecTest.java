@@ -0,0 +1,90 @@
+package com.huffman.code;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HuffmanByteCodecTest {
+
+    @Test
+    //Test UTF-8 text round trips as bytes and compresses
+    public void test01Text() throws IOException {
+        byte[] text = TestFiles.readBytes("/GreatExpectations.txt");
+        byte[] compressed = HuffmanByteCodec.compress(text);
+        assertTrue(compressed.length < text.length * 0.6);
+        assertArrayEquals(text, HuffmanByteCodec.decompress(compressed));
+        assertArrayEquals(new byte[0], HuffmanByteCodec.decompress(HuffmanByteCodec.compress(new byte[0])));
+    }
+
+    @Test
+    //Test binary data with every byte value, through a ByteBuffer slice,
+    //and a truncated stream
+    public void test02Binary() {
+        byte[] data = new byte[100000];
+        new Random(18).nextBytes(data);
+        HuffmanByteCodec codec = HuffmanByteCodec.train(data);
+        ByteBuffer slice = ByteBuffer.wrap(data, 1000, 5000);
+        EncodedData encoded = codec.encode(slice);
+        assertEquals(1000, slice.position());
+
+        byte[] expected = new byte[5000];
+        System.arraycopy(data, 1000, expected, 0, 5000);
+        assertArrayEquals(expected, codec.decode(encoded));
+        assertEquals(8, codec.getCodeLength((byte) -1));
+
+        //A stream cut inside its last code fails instead of decoding short
+        EncodedData cut = new EncodedData(encoded.getBytes(), encoded.getBitLength() - 1);
+        assertThrows(IllegalStateException.class, () -> codec.decode(cut));
+    }
+
+    @Test
+    //Test encoding to and decoding from streams
+    public void test03Streams() throws IOException {
+        byte[] data = TestFiles.readBytes("/TestFile1.txt");
+        HuffmanByteCodec codec = HuffmanByteCodec.train(data);
+
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        BitWriter writer = new BitWriter(Channels.newChannel(sink));
+        codec.encode(ByteBuffer.wrap(data), writer);
+        writer.finish();
+
+        BitReader reader = new BitReader(Channels.newChannel(new ByteArrayInputStream(sink.toByteArray())));
+        ByteBuffer decoded = ByteBuffer.allocate(data.length);
+        codec.decode(reader, decoded);
+        assertFalse(decoded.hasRemaining());
+        assertArrayEquals(data, decoded.array());
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(new byte[] {(byte) 0xFF}));
+    }
+
+    @Test
+    //Test slices decoded from the nearest checkpoint, and a stored index
+    public void test04DecodeRange() throws IOException {
+        byte[] data = TestFiles.readBytes("/GreatExpectations.txt");
+        HuffmanByteCodec codec = HuffmanByteCodec.train(data);
+        BitWriter writer = new BitWriter();
+        SyncIndex index = codec.encode(ByteBuffer.wrap(data), writer, 4096);
+        EncodedData encoded = writer.toEncodedData();
+        assertEquals(data.length, index.getSymbolCount());
+        assertEquals((data.length + 4095) / 4096, index.getCheckpointCount());
+        assertArrayEquals(data, codec.decode(encoded));
+
+        BitWriter stored = new BitWriter();
+        index.write(stored);
+        SyncIndex loaded = SyncIndex.read(new BitReader(stored.toEncodedData()));
+
+        int[][] ranges = {{0, 10}, {4095, 4097}, {data.length - 100, data.length}, {777777, 800000}, {5, 5}};
+        for (int[] r : ranges) {
+            byte[] expected = Arrays.copyOfRange(data, r[0], r[1]);
+            assertArrayEquals(expected, codec.decodeRange(encoded, loaded, r[0], r[1]));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> codec.decodeRange(encoded, index, 0, data.length + 1));
+    }
+}
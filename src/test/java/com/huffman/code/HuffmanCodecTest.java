@@ -0,0 +1,105 @@
+package com.huffman.code;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HuffmanCodecTest {
+
+    @Test
+    //Test repeated calls give the same output instead of accumulating
+    public void test01Stateless() {
+        HuffmanCodec codec = HuffmanCodec.train("pipppperrr pippppar piippppeer");
+        EncodedData first = codec.encode("pipe repair");
+        EncodedData second = codec.encode("pipe repair");
+        assertEquals(first.toBitString(), second.toBitString());
+        assertEquals("pipe repair", codec.decode(first));
+        assertEquals(1, codec.getCodeLength('p'));
+        assertEquals(0, codec.getCodeLength('z'));
+        assertThrows(IllegalArgumentException.class, () -> codec.encode("pizza"));
+    }
+
+    @Test
+    //Test one codec shared by many threads
+    public void test02Concurrent() throws Exception {
+        String text = TestFiles.readString("/GreatExpectations.txt");
+        HuffmanService hs = new HuffmanService();
+        hs.countFrequencies(text);
+        HuffmanCodec codec = hs.buildCodec();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 32; t++) {
+                int from = t * (text.length() / 32);
+                String slice = text.substring(from, from + text.length() / 32);
+                results.add(pool.submit(() -> slice.equals(codec.decode(codec.encode(slice)))));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    //Test the codec compresses like the service's own canonical code
+    public void test03MatchesService() throws IOException {
+        String text = TestFiles.readString("/GreatExpectations.txt");
+        HuffmanCodec codec = HuffmanCodec.train(text);
+        EncodedData data = codec.encode(text);
+        assertEquals(new HuffmanService().encodeBits(text).getBitLength(), data.getBitLength());
+        assertEquals(text, codec.decode(data));
+    }
+
+    @Test
+    //Test a dictionary survives save and load and escapes unseen chars
+    public void test04Dictionary() throws IOException {
+        String text = TestFiles.readString("/GreatExpectations.txt");
+        HuffmanCodec trained = HuffmanCodec.trainDictionary(text);
+        assertTrue(trained.hasEscape());
+
+        try (TestFiles files = new TestFiles()) {
+            Path file = files.newFile(".dict");
+            trained.save(file);
+            assertTrue(Files.size(file) < 256);
+            HuffmanCodec loaded = HuffmanCodec.load(file);
+
+            String message = "Pip met Estella \u00e9\u4e2d\u0000 again.";
+            EncodedData data = trained.encode(message);
+            assertEquals(data.toBitString(), loaded.encode(message).toBitString());
+            assertEquals(message, loaded.decode(data));
+            assertEquals("", loaded.decode(loaded.encode("")));
+
+            EncodedData cut = new EncodedData(data.getBytes(), data.getBitLength() - 1);
+            assertThrows(IllegalStateException.class, () -> loaded.decode(cut));
+        }
+    }
+
+    @Test
+    //Test decoding slices of text with escapes from the nearest checkpoint
+    public void test05DecodeRange() throws IOException {
+        HuffmanCodec codec = HuffmanCodec.trainDictionary("the quick brown fox");
+        String text = TestFiles.readString("/GreatExpectations.txt").substring(0, 50000);
+        BitWriter writer = new BitWriter();
+        SyncIndex index = codec.encode(text, writer, 1000);
+        EncodedData data = writer.toEncodedData();
+        assertEquals(text, codec.decode(data));
+
+        assertEquals(text.substring(0, 1), codec.decodeRange(data, index, 0, 1));
+        assertEquals(text.substring(999, 3001), codec.decodeRange(data, index, 999, 3001));
+        assertEquals(text.substring(49000), codec.decodeRange(data, index, 49000, 50000));
+        assertEquals("", codec.decodeRange(data, index, 123, 123));
+        assertThrows(IndexOutOfBoundsException.class, () -> codec.decodeRange(data, index, 10, 5));
+    }
+}
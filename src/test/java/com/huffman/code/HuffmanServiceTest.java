@@ -1,6 +1,11 @@
 package com.huffman.code;
 
 import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class HuffmanServiceTest {
@@ -10,11 +15,11 @@ class HuffmanServiceTest {
         HuffmanService hs = new HuffmanService();
         hs.countFrequencies("heeeellooorrrrrr");
 
-        int h_count = hs.frequencyCount.get('h');
-        int e_count = hs.frequencyCount.get('e');
-        int l_count = hs.frequencyCount.get('l');
-        int o_count = hs.frequencyCount.get('o');
-        int r_count = hs.frequencyCount.get('r');
+        long h_count = hs.frequencyCount.get('h');
+        long e_count = hs.frequencyCount.get('e');
+        long l_count = hs.frequencyCount.get('l');
+        long o_count = hs.frequencyCount.get('o');
+        long r_count = hs.frequencyCount.get('r');
 
         assertEquals(1, h_count);
         assertEquals(4, e_count);
@@ -31,8 +36,8 @@ class HuffmanServiceTest {
     public void test02() {
         HuffmanService hs = new HuffmanService();
         hs.countFrequencies("94755534996");
-        int num5 = hs.frequencyCount.get('5');
-        int num4 = hs.frequencyCount.get('4');
+        long num5 = hs.frequencyCount.get('5');
+        long num4 = hs.frequencyCount.get('4');
         assertEquals(3, num5);
         assertEquals(2, num4);
     }
@@ -46,9 +51,9 @@ class HuffmanServiceTest {
         hs.buildTree();
         hs.buildEncoder(); // this is hashmap
         String d = "0";
-        String c = "10";
-        String a = "110";
-        String b = "111";
+        String c = "11";
+        String a = "100";
+        String b = "101";
 
         assertEquals(hs.encodingMap.get('d'),d);
         assertEquals(hs.encodingMap.get('c'),c);
@@ -88,12 +93,12 @@ class HuffmanServiceTest {
         hs.addToHeap();
         hs.buildTree();
         hs.buildEncoder(); // this is hashmap
-        String p = "0";
-        String i = "110";
-        String r = "111";
-        String e = "100";
-        String a = "1010";
-        String space = "1011";
+        String p = "1";
+        String i = "010";
+        String r = "011";
+        String e = "001";
+        String a = "0000";
+        String space = "0001";
 
         assertEquals(hs.encodingMap.get('p'),p);
         assertEquals(hs.encodingMap.get('i'),i);
@@ -109,7 +114,7 @@ class HuffmanServiceTest {
         HuffmanService hs = new HuffmanService();
         String inputString = "heeeellooorrrrrr";
         String actual = hs.encode(inputString);
-        String expected = "11101010101011111111110110110000000";
+        String expected = "00010101010001001010101111111111111";
         assertEquals(actual,expected);
 
         String actualDecoded = hs.decode();
@@ -124,7 +129,7 @@ class HuffmanServiceTest {
     public void test07() {
         HuffmanService hs = new HuffmanService();
         String actualCodedString = hs.encode("pipppperrr pippppar piippppeer");
-        String expectedCodedString = "011000001001111111111011011000001010111101101101100000100100111";
+        String expectedCodedString = "101011110010110110110001101011110000011000110100101111001001011";
         assertEquals(actualCodedString,expectedCodedString);
     }
 
@@ -135,12 +140,251 @@ class HuffmanServiceTest {
         String inputString = "pipppperrr pippppar piippppeer";
 
         String actualCodedString = hs.encode(inputString);
-        String expectedCodedString = "011000001001111111111011011000001010111101101101100000100100111";
+        String expectedCodedString = "101011110010110110110001101011110000011000110100101111001001011";
         assertEquals(actualCodedString,expectedCodedString);
 
         String actualDecodedString = hs.decode();
         assertEquals(actualDecodedString,inputString);
     }
 
+    @Test
+    //Test packed encoder matches the '0'/'1' encoder bit for bit
+    public void test09() {
+        HuffmanService hs = new HuffmanService();
+        String inputString = "pipppperrr pippppar piippppeer";
+        EncodedData data = hs.encodeBits(inputString);
+        String expectedCodedString = "101011110010110110110001101011110000011000110100101111001001011";
+
+        assertEquals(expectedCodedString.length(), data.getBitLength());
+        assertEquals(8, data.getBytes().length);
+        assertEquals(1, data.getPadding());
+        assertEquals(expectedCodedString, data.toBitString());
+        assertEquals(inputString, hs.decode(data));
+    }
+
+    @Test
+    //Test packed encoder round trip on a large file
+    public void test10() throws IOException {
+        String inputString = TestFiles.readString("/GreatExpectations.txt");
+        HuffmanService hs = new HuffmanService();
+        EncodedData data = hs.encodeBits(inputString);
+
+        assertTrue(data.getBytes().length < inputString.length());
+        assertEquals(inputString, hs.decode(data));
+    }
+
+    @Test
+    //Test table decoder matches the tree-walk decoder, including codes
+    //longer than the primary table
+    public void test11() throws IOException {
+        String inputString = TestFiles.readString("/GreatExpectations.txt");
+        HuffmanService hs = new HuffmanService();
+        String bits = hs.encode(inputString);
+        String treeDecoded = hs.decode();
+
+        HuffmanService tableService = new HuffmanService();
+        EncodedData data = tableService.encodeBits(inputString);
+        assertEquals(bits, data.toBitString());
+        assertEquals(treeDecoded, tableService.decode(data));
+        assertEquals(inputString, tableService.decode(data));
+    }
+
+    @Test
+    //Test canonical codes keep the tree's code lengths and are assigned
+    //in (length, symbol) order
+    public void test12() {
+        HuffmanService hs = new HuffmanService();
+        hs.countFrequencies("pipppperrr pippppar piippppeer");
+        hs.addToHeap();
+        hs.buildTree();
+        hs.buildEncoder();
+        CanonicalCode code = hs.buildCanonicalEncoder();
+
+        String symbols = "pirea ";
+        for (char c : symbols.toCharArray()) {
+            assertEquals(hs.encodingMap.get(c).length(), code.getLength(c));
+        }
+        //p=0, e=100, i=101, r=110, ' '=1110, a=1111
+        assertEquals(0b0, code.getCode('p'));
+        assertEquals(0b100, code.getCode('e'));
+        assertEquals(0b101, code.getCode('i'));
+        assertEquals(0b110, code.getCode('r'));
+        assertEquals(0b1110, code.getCode(' '));
+        assertEquals(0b1111, code.getCode('a'));
+    }
+
+    @Test
+    //Test canonical round trip using only the code-length header, and a
+    //truncated payload fails
+    public void test13() throws IOException {
+        String inputString = TestFiles.readString("/GreatExpectations.txt");
+        byte[] encoded = new HuffmanService().encodeCanonical(inputString);
+        assertTrue(encoded.length < inputString.length());
+        assertEquals(inputString, new HuffmanService().decodeCanonical(encoded));
+
+        //A single distinct char still gets a 1-bit code
+        byte[] single = new HuffmanService().encodeCanonical("zzzz");
+        assertEquals("zzzz", new HuffmanService().decodeCanonical(single));
+
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 10);
+        assertThrows(IllegalStateException.class, () -> new HuffmanService().decodeCanonical(truncated));
+    }
+
+    @Test
+    //Test parallel counting of a large input matches a sequential count
+    public void test14() throws IOException {
+        String inputString = TestFiles.readString("/GreatExpectations.txt");
+        FrequencyTable counts = FrequencyCounter.countChars(inputString);
+        long[] expected = new long[Character.MAX_VALUE + 1];
+        for (int x = 0; x < inputString.length(); x++) {
+            expected[inputString.charAt(x)]++;
+        }
+        for (int c = 0; c < expected.length; c++) {
+            assertEquals(expected[c], counts.get(c));
+        }
+
+        HuffmanService hs = new HuffmanService();
+        hs.countFrequencies(inputString);
+        assertEquals(counts.size(), hs.frequencyCount.size());
+        assertEquals(expected['e'], hs.frequencyCount.get('e'));
+        assertEquals(expected['\n'], hs.frequencyCount.get('\n'));
+    }
+
+    @Test
+    //Test sparse frequency tables grow and match dense ones
+    public void test15() {
+        FrequencyTable sparse = new FrequencyTable();
+        FrequencyTable dense = new FrequencyTable(Character.MAX_VALUE + 1);
+        for (int x = 0; x < 5000; x++) {
+            int c = (x * 7919) % 3001 + 100;
+            sparse.increment(c);
+            dense.increment(c);
+        }
+        assertFalse(sparse.isDense());
+        assertEquals(dense.size(), sparse.size());
+        assertArrayEquals(dense.symbols(), sparse.symbols());
+        for (int c : dense.symbols()) {
+            assertEquals(dense.get(c), sparse.get(c));
+        }
+        assertEquals(5000, sparse.total());
+        assertEquals(0, sparse.get(99));
+    }
+
+    @Test
+    //Test the code table arrays, and a single distinct char getting a
+    //1-bit code on both the String and packed paths
+    public void test16() {
+        HuffmanService hs = new HuffmanService();
+        hs.encodeBits("aaabbbbbccccccccdddddddddddd");
+        assertEquals(0b100, hs.encodingMap.getCode('a'));
+        assertEquals(3, hs.encodingMap.getLength('a'));
+        assertEquals(0, hs.encodingMap.getLength('z'));
+        assertNull(hs.encodingMap.get('z'));
+
+        HuffmanService single = new HuffmanService();
+        assertEquals("0000", single.encode("zzzz"));
+        assertEquals("zzzz", single.decode());
+        assertEquals("zzzz", single.decode(single.encodeBits("zzzz")));
+    }
+
+    @Test
+    //Test two-queue code lengths cost the same as the heap's, and large
+    //alphabets round trip through the service's two-queue tree
+    public void test17() {
+        Random random = new Random(3);
+        StringBuilder sb = new StringBuilder();
+        for (int x = 0; x < 20000; x++) {
+            sb.append((char) (random.nextInt(600) * random.nextInt(600) / 600));
+        }
+        String inputString = sb.toString();
+
+        HuffmanService hs = new HuffmanService();
+        hs.countFrequencies(inputString);
+        assertTrue(hs.frequencyCount.size() >= HuffmanService.TWO_QUEUE_MIN_SYMBOLS);
+        int[] lengths = TwoQueueBuilder.codeLengths(hs.frequencyCount);
+
+        //Build the same alphabet with the heap for comparison
+        IntPriorityHeap heap = new IntPriorityHeap();
+        for (int c : hs.frequencyCount.symbols()) {
+            heap.add(c, (int) hs.frequencyCount.get(c));
+        }
+        long heapCost = 0;
+        while (heap.size() > 1) {
+            int x = heap.peekPriority();
+            heap.poll();
+            int y = heap.peekPriority();
+            heap.poll();
+            heapCost += x + y;
+            heap.add(0, x + y);
+        }
+        long twoQueueCost = 0;
+        for (int c : hs.frequencyCount.symbols()) {
+            twoQueueCost += hs.frequencyCount.get(c) * lengths[c];
+        }
+        assertEquals(heapCost, twoQueueCost);
+
+        HuffmanService service = new HuffmanService();
+        EncodedData data = service.encodeBits(inputString);
+        assertEquals(twoQueueCost, data.getBitLength());
+        assertEquals(inputString, service.decode(data));
+    }
+
+    @Test
+    //Test code generation on a degenerate tree: 60 levels deep works,
+    //and 5000 levels fails cleanly instead of overflowing the stack
+    public void test18() {
+        HuffmanService hs = new HuffmanService();
+        hs.huffTree = chain(60);
+        hs.frequencyCount.increment(60);
+        hs.buildEncoder();
+        assertEquals("0", hs.encodingMap.get(0));
+        assertEquals("1".repeat(59) + "0", hs.encodingMap.get(59));
+        assertEquals("1".repeat(60), hs.encodingMap.get(60));
+        assertEquals(60, hs.buildCanonicalEncoder().getMaxLength());
 
-}
\ No newline at end of file
+        HuffmanService deep = new HuffmanService();
+        deep.huffTree = chain(5000);
+        deep.frequencyCount.increment(5000);
+        assertThrows(IllegalStateException.class, deep::buildEncoder);
+        assertThrows(IllegalStateException.class, deep::buildCanonicalEncoder);
+    }
+
+    @Test
+    //Test table decoding of codes up to 60 bits, which need several
+    //levels of sub-tables, and that a truncated code fails cleanly
+    public void test19() {
+        int[] lengths = new int[61];
+        for (int s = 0; s < 60; s++) {
+            lengths[s] = s + 1;
+        }
+        lengths[60] = 60;
+        CanonicalCode code = new CanonicalCode(lengths);
+        StringBuilder sb = new StringBuilder();
+        for (int s = 60; s >= 0; s--) {
+            sb.append((char) s);
+        }
+        String text = sb.toString();
+        BitWriter writer = new BitWriter();
+        code.encode(text, writer);
+        EncodedData data = writer.toEncodedData();
+        TableDecoder decoder = code.buildDecoder();
+        assertEquals(text, decoder.decodeString(data));
+
+        EncodedData cut = new EncodedData(data.getBytes(), 40);
+        assertThrows(IllegalStateException.class, () -> decoder.decodeString(cut));
+        EncodedData truncated = new EncodedData(Arrays.copyOf(data.getBytes(), 5), 40);
+        assertThrows(IllegalStateException.class, () -> decoder.decodeString(truncated));
+    }
+
+    /* Return a tree whose internal node k has the leaf k as its 0-branch
+     * and node k + 1 as its 1-branch, down to the leaf depth */
+    static FlatHuffmanTree chain(int depth) {
+        int[] children = new int[2 * depth];
+        for (int k = 0; k < depth; k++) {
+            children[2 * k] = ~k;
+            children[2 * k + 1] = k + 1;
+        }
+        children[2 * depth - 1] = ~depth;
+        return new FlatHuffmanTree(children, 0);
+    }
+}
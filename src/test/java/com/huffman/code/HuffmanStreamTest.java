@@ -0,0 +1,113 @@
+package com.huffman.code;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HuffmanStreamTest {
+
+    static byte[] compress(byte[] data, int sampleSize) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new HuffmanOutputStream(Channels.newChannel(bytes), sampleSize)) {
+            //Write in uneven pieces to cross the sample boundary mid-write
+            for (int off = 0; off < data.length; off += 1000) {
+                out.write(data, off, Math.min(1000, data.length - off));
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] decompress(byte[] compressed) throws IOException {
+        try (InputStream in = new HuffmanInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    //Test round trip when the code comes from a prefix sample
+    public void test01SampledPrefix() throws IOException {
+        byte[] data = TestFiles.readBytes("/GreatExpectations.txt");
+        byte[] compressed = compress(data, 4096);
+        assertTrue(compressed.length < data.length * 0.6);
+        assertArrayEquals(data, decompress(compressed));
+    }
+
+    @Test
+    //Test data shorter than the sample, and empty data
+    public void test02ShortData() throws IOException {
+        byte[] data = TestFiles.readBytes("/TestFile1.txt");
+        assertArrayEquals(data, decompress(compress(data, 1 << 20)));
+        assertArrayEquals(new byte[0], decompress(compress(new byte[0], 1 << 20)));
+    }
+
+    @Test
+    //Test bytes that never appear in the sample still round trip
+    public void test03UnsampledBytes() throws IOException {
+        byte[] data = new byte[100000];
+        Arrays.fill(data, 0, 50000, (byte) 'a');
+        Random random = new Random(42);
+        for (int i = 50000; i < data.length; i++) {
+            data[i] = (byte) random.nextInt(256);
+        }
+        assertArrayEquals(data, decompress(compress(data, 1000)));
+    }
+
+    @Test
+    //Test the channel variants
+    public void test04Channels() throws IOException {
+        byte[] data = TestFiles.readBytes("/TestFile1.txt");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (WritableByteChannel out = HuffmanOutputStream.newChannel(Channels.newChannel(bytes))) {
+            out.write(ByteBuffer.wrap(data));
+        }
+
+        ReadableByteChannel in = HuffmanInputStream.newChannel(
+                Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+        ByteBuffer decoded = ByteBuffer.allocate(data.length + 1);
+        while (in.read(decoded) >= 0) {
+        }
+        assertArrayEquals(data, Arrays.copyOf(decoded.array(), decoded.position()));
+    }
+
+    @Test
+    //Test truncated data is reported instead of decoded as zeros
+    public void test05Truncated() throws IOException {
+        byte[] compressed = compress(TestFiles.readBytes("/GreatExpectations.txt"), 4096);
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+        assertThrows(EOFException.class, () -> decompress(truncated));
+    }
+
+    @Test
+    //Test memory-mapped file compression round trips, and its output
+    //reads back through a HuffmanInputStream
+    public void test06Files() throws IOException {
+        byte[] data = TestFiles.readBytes("/GreatExpectations.txt");
+        try (TestFiles files = new TestFiles()) {
+            Path in = files.newFile(".txt", data);
+            Path compressed = files.newFile(".huf");
+            Path out = files.newFile(".out");
+            long size = HuffmanFiles.compress(in, compressed);
+            assertEquals(Files.size(compressed), size);
+            assertTrue(size < data.length * 0.6);
+
+            assertEquals(data.length, HuffmanFiles.decompress(compressed, out));
+            assertArrayEquals(data, Files.readAllBytes(out));
+            assertArrayEquals(data, decompress(Files.readAllBytes(compressed)));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.huffman.code;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(3)
+class IntPriorityHeapTest {
+
+    @Test
+    /** Test values come out in priority order and the heap grows */
+    public void test00AddPoll() {
+        IntPriorityHeap heap = new IntPriorityHeap(2);
+        int[] priorities = {5, 3, 8, 1, 9, 2, 7};
+        for (int i = 0; i < priorities.length; i++) {
+            heap.add(i, priorities[i]);
+        }
+        assertEquals(7, heap.size());
+        assertEquals(3, heap.peek());
+        assertEquals(1, heap.peekPriority());
+
+        int[] expected = {3, 5, 1, 0, 6, 2, 4};
+        for (int v : expected) {
+            assertEquals(v, heap.poll());
+        }
+        assertEquals(0, heap.size());
+        assertThrows(NoSuchElementException.class, heap::poll);
+    }
+
+    @Test
+    /** Test ties come out in the same order as from Heap, so trees built
+     * with either heap are identical */
+    public void test10MatchesHeapTies() {
+        Random random = new Random(7);
+        Heap<Integer, Integer> heap = new Heap<>();
+        IntPriorityHeap intHeap = new IntPriorityHeap();
+        int next = 0;
+        for (int round = 0; round < 2000; round++) {
+            if (heap.size() > 0 && random.nextInt(3) == 0) {
+                assertEquals((int) heap.poll(), intHeap.poll());
+            } else {
+                int p = random.nextInt(10);
+                heap.add(next, p);
+                intHeap.add(next, p);
+                next++;
+            }
+        }
+        while (heap.size() > 0) {
+            assertEquals((int) heap.poll(), intHeap.poll());
+        }
+    }
+
+    @Test
+    /** Test bottom-up heapify, batches added to a heap, and pollAndAdd,
+     * against Heap */
+    public void test20Batches() {
+        Random random = new Random(22);
+        int n = 1000;
+        int[] values = new int[n];
+        int[] priorities = new int[n];
+        AList<Integer> vs = new AList<>();
+        AList<Integer> ps = new AList<>();
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+            priorities[i] = random.nextInt(50);
+            vs.append(i);
+            ps.append(priorities[i]);
+        }
+        IntPriorityHeap intHeap = new IntPriorityHeap(values, priorities, n);
+        Heap<Integer, Integer> heap = new Heap<>(vs, ps);
+        assertEquals(n, intHeap.size());
+
+        //A small batch into a large heap is added one by one
+        int[] more = {n, n + 1};
+        int[] morePriorities = {0, 100};
+        intHeap.addAll(more, morePriorities, 2);
+        AList<Integer> moreVs = new AList<>();
+        AList<Integer> morePs = new AList<>();
+        moreVs.append(n);
+        moreVs.append(n + 1);
+        morePs.append(0);
+        morePs.append(100);
+        heap.addAll(moreVs, morePs);
+
+        int last = -1;
+        int next = n + 2;
+        while (intHeap.size() > 1) {
+            int p = intHeap.peekPriority();
+            assertTrue(p >= last);
+            last = p;
+            assertEquals((int) heap.poll(), intHeap.poll());
+            int q = p + random.nextInt(3);
+            assertEquals((int) heap.pollAndAdd(next, q), intHeap.pollAndAdd(next, q));
+            next++;
+        }
+        assertEquals((int) heap.poll(), intHeap.poll());
+        assertThrows(IllegalArgumentException.class, () -> new Heap<>(moreVs, ps));
+    }
+
+    @Test
+    /** Test a batch with a value already in the heap leaves it unchanged */
+    public void test21BatchDuplicate() {
+        Heap<String, Integer> heap = new Heap<>();
+        heap.add("a", 1);
+        AList<String> vs = new AList<>();
+        AList<Integer> ps = new AList<>();
+        vs.append("b");
+        vs.append("a");
+        ps.append(2);
+        ps.append(3);
+        assertThrows(IllegalArgumentException.class, () -> heap.addAll(vs, ps));
+        assertEquals(1, heap.size());
+        assertFalse(heap.contains("b"));
+        assertEquals("a", heap.pollAndAdd("a", 5));
+        assertEquals("a", heap.peek());
+    }
+
+    @Test
+    /** Test wider heaps poll in priority order, both after adds and after
+     * heapify */
+    public void test30Arity() {
+        Random random = new Random(23);
+        int[] values = new int[5000];
+        int[] priorities = new int[5000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+            priorities[i] = random.nextInt(1000);
+        }
+        for (int arity : new int[] {3, 4, 8}) {
+            IntPriorityHeap added = new IntPriorityHeap(1, arity);
+            IntPriorityHeap heapified = new IntPriorityHeap(1, arity);
+            assertEquals(arity, added.getArity());
+            for (int i = 0; i < values.length; i++) {
+                added.add(values[i], priorities[i]);
+            }
+            heapified.addAll(values, priorities, values.length);
+
+            int[] sorted = priorities.clone();
+            Arrays.sort(sorted);
+            for (int p : sorted) {
+                assertEquals(p, added.peekPriority());
+                assertEquals(p, heapified.peekPriority());
+                assertEquals(p, priorities[added.poll()]);
+                assertEquals(p, priorities[heapified.poll()]);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new IntPriorityHeap(16, 1));
+    }
+}
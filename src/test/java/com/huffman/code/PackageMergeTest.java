@@ -0,0 +1,110 @@
+package com.huffman.code;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackageMergeTest {
+
+    /* Return the total encoded bits of freqs under lengths */
+    static long cost(FrequencyTable freqs, int[] lengths) {
+        long bits = 0;
+        for (int s : freqs.symbols()) {
+            bits += freqs.get(s) * lengths[s];
+        }
+        return bits;
+    }
+
+    static int maxLength(int[] lengths) {
+        int max = 0;
+        for (int len : lengths) {
+            max = Math.max(max, len);
+        }
+        return max;
+    }
+
+    /* Fibonacci frequencies give the deepest possible Huffman tree */
+    static FrequencyTable fibonacci(int symbols) {
+        FrequencyTable freqs = new FrequencyTable(symbols);
+        long a = 1;
+        long b = 1;
+        for (int s = 0; s < symbols; s++) {
+            freqs.add(s, a);
+            long next = a + b;
+            a = b;
+            b = next;
+        }
+        return freqs;
+    }
+
+    @Test
+    //Test a limit the Huffman code already meets costs nothing
+    public void test01NotBinding() {
+        Random random = new Random(11);
+        for (int round = 0; round < 50; round++) {
+            FrequencyTable freqs = new FrequencyTable(64);
+            for (int s = 0; s < 64; s++) {
+                freqs.add(s, random.nextInt(1000));
+            }
+            int[] huffman = TwoQueueBuilder.codeLengths(freqs);
+            int[] limited = PackageMerge.codeLengths(freqs, maxLength(huffman));
+            assertEquals(cost(freqs, huffman), cost(freqs, limited));
+            assertEquals(cost(freqs, huffman),
+                    cost(freqs, PackageMerge.codeLengths(freqs, 40)));
+        }
+    }
+
+    @Test
+    //Test skewed input is capped, stays a valid code, and what it costs
+    public void test02Skewed() {
+        FrequencyTable freqs = fibonacci(30);
+        int[] huffman = TwoQueueBuilder.codeLengths(freqs);
+        assertEquals(29, maxLength(huffman));
+
+        long huffmanCost = cost(freqs, huffman);
+        int[] limits = {24, 15, 8, 5};
+        long previousCost = huffmanCost;
+        for (int limit : limits) {
+            int[] limited = PackageMerge.codeLengths(freqs, limit);
+            assertEquals(limit, maxLength(limited));
+            new CanonicalCode(limited); //throws if the lengths are over-subscribed
+            long limitedCost = cost(freqs, limited);
+            assertTrue(limitedCost >= previousCost);
+            previousCost = limitedCost;
+        }
+        //Cutting 29-bit codes to 15 bits costs under 0.001% here, to 8 bits
+        //about 2%, and to the minimum of 5 bits about 67%
+        assertTrue(cost(freqs, PackageMerge.codeLengths(freqs, 15)) < huffmanCost * 1.00001);
+        assertTrue(cost(freqs, PackageMerge.codeLengths(freqs, 8)) < huffmanCost * 1.02);
+        assertTrue(cost(freqs, PackageMerge.codeLengths(freqs, 5)) < huffmanCost * 1.68);
+    }
+
+    @Test
+    //Test the compression cost of a length limit on real text
+    public void test03Text() throws IOException {
+        String text = TestFiles.readString("/GreatExpectations.txt");
+        FrequencyTable freqs = FrequencyCounter.countChars(text);
+        int[] huffman = TwoQueueBuilder.codeLengths(freqs);
+        assertTrue(maxLength(huffman) > 12);
+
+        CanonicalCode limited = CanonicalCode.fromFrequencies(freqs, 12);
+        assertEquals(12, limited.getMaxLength());
+        int[] limitedLengths = PackageMerge.codeLengths(freqs, 12);
+        assertTrue(cost(freqs, limitedLengths) < cost(freqs, huffman) * 1.005);
+
+        BitWriter writer = new BitWriter();
+        limited.encode(text, writer);
+        assertEquals(text, limited.buildDecoder().decodeString(writer.toEncodedData()));
+    }
+
+    @Test
+    //Test an alphabet too large for the limit is rejected
+    public void test04TooManySymbols() {
+        FrequencyTable freqs = fibonacci(17);
+        assertThrows(IllegalArgumentException.class, () -> PackageMerge.codeLengths(freqs, 4));
+        assertEquals(4, maxLength(PackageMerge.codeLengths(fibonacci(16), 4)));
+    }
+}
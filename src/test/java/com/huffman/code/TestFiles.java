@@ -0,0 +1,50 @@
+package com.huffman.code;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Test resources and temporary files shared by the tests. The temporary
+ * files made by newFile are deleted on close, so a test can make them in a
+ * try-with-resources block instead of cleaning up in finally. */
+class TestFiles implements AutoCloseable {
+
+    private final List<Path> files = new ArrayList<>();
+
+    /** Return the bytes of the classpath resource name */
+    static byte[] readBytes(String name) throws IOException {
+        try (InputStream in = TestFiles.class.getResourceAsStream(name)) {
+            return in.readAllBytes();
+        }
+    }
+
+    /** Return the classpath resource name decoded as UTF-8 */
+    static String readString(String name) throws IOException {
+        return new String(readBytes(name), StandardCharsets.UTF_8);
+    }
+
+    /** Return a new empty temporary file with the given suffix */
+    Path newFile(String suffix) throws IOException {
+        Path file = Files.createTempFile("huffman", suffix);
+        files.add(file);
+        return file;
+    }
+
+    /** Return a new temporary file with the given suffix holding data */
+    Path newFile(String suffix, byte[] data) throws IOException {
+        return Files.write(newFile(suffix), data);
+    }
+
+    /** Delete every file made by newFile */
+    @Override
+    public void close() throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+        files.clear();
+    }
+}